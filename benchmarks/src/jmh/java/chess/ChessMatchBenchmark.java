@@ -0,0 +1,62 @@
+package chess;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChessMatchBenchmark {
+
+    private static final ChessPosition SOURCE = new ChessPosition('d', 4);
+    private static final ChessPosition TARGET = new ChessPosition('c', 5);
+
+    private ChessMatch middlegame;
+    private ChessMatch inCheck;
+    private ChessMatch moveTarget;
+    private final MoveList moveList = new MoveList();
+
+    @Setup
+    public void setup() {
+        middlegame = Games.middlegame();
+        inCheck = Games.middlegameInCheck();
+    }
+
+    //a per-call copy would cost more than the move itself, so each iteration gets one copy and every call
+    //takes its move back
+    @Setup(Level.Iteration)
+    public void copyPosition() {
+        moveTarget = new ChessMatch(middlegame);
+    }
+
+    @Benchmark
+    public ChessPiece performChessMove() {
+        ChessPiece captured = moveTarget.performChessMove(SOURCE, TARGET);
+        moveTarget.undo();
+        return captured;
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        middlegame.generateMoves(moveList);
+        return moveList.size();
+    }
+
+    @Benchmark
+    public boolean testCheck() {
+        return middlegame.testCheck(Color.WHITE);
+    }
+
+    @Benchmark
+    public boolean testCheckmate() {
+        return inCheck.testCheckmate(Color.BLACK);
+    }
+}
@@ -0,0 +1,26 @@
+package chess;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameReplayBenchmark {
+
+    @Benchmark
+    public boolean replayOperaGame() {
+        return Games.replay(Games.OPERA_GAME, Games.OPERA_GAME.length).getCheckmate();
+    }
+
+    @Benchmark
+    public long perftDepth3() {
+        return Perft.perft(new ChessMatch(), 3);
+    }
+}
@@ -0,0 +1,36 @@
+package chess;
+
+final class Games {
+    //Morphy vs. Duke of Brunswick and Count Isouard, Paris 1858
+    static final String[] OPERA_GAME = (
+            "e2e4 e7e5 g1f3 d7d6 d2d4 c8g4 d4e5 g4f3 d1f3 d6e5 f1c4 g8f6 f3b3 d8e7 b1c3 c7c6 c1g5 b7b5 "
+            + "c3b5 c6b5 c4b5 b8d7 e1c1 a8d8 d1d7 d8d7 h1d1 e7e6 b5d7 f6d7 b3b8 d7b8 d1d8").split(" ");
+
+    //closed Ruy Lopez, every piece still on the board
+    static final String[] RUY_LOPEZ = (
+            "e2e4 e7e5 g1f3 b8c6 f1b5 a7a6 b5a4 g8f6 e1g1 f8e7 f1e1 b7b5 a4b3 d7d6 c2c3 e8g8 "
+            + "h2h3 c6a5 b3c2 c7c5 d2d4 d8c7").split(" ");
+
+    private Games() {
+    }
+
+    static ChessMatch replay(String[] moves, int count) {
+        ChessMatch chessMatch = new ChessMatch();
+        for (int i = 0; i < count; i++) {
+            String move = moves[i];
+            chessMatch.performChessMove(
+                    new ChessPosition(move.charAt(0), move.charAt(1) - '0'),
+                    new ChessPosition(move.charAt(2), move.charAt(3) - '0'));
+        }
+        return chessMatch;
+    }
+
+    static ChessMatch middlegame() {
+        return replay(RUY_LOPEZ, RUY_LOPEZ.length);
+    }
+
+    //black to move and in check after 11.Bxb5+
+    static ChessMatch middlegameInCheck() {
+        return replay(OPERA_GAME, 21);
+    }
+}
@@ -0,0 +1,53 @@
+package chess;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PieceMovesBenchmark {
+
+    @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+    private PieceType type;
+
+    private ChessPiece piece;
+    private final MoveList moveList = new MoveList();
+
+    @Setup
+    public void setup() {
+        ChessMatch chessMatch = Games.middlegame();
+        for (ChessPiece[] row : chessMatch.getPieces()) {
+            for (ChessPiece p : row) {
+                if (p != null && p.getColor() == Color.WHITE && p.getType() == type) {
+                    piece = p;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean[][] possibleMoves() {
+        return piece.possibleMoves();
+    }
+
+    @Benchmark
+    public long moveMask() {
+        return piece.moves();
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        moveList.clear();
+        piece.generateMoves(moveList);
+        return moveList.size();
+    }
+}
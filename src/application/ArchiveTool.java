@@ -0,0 +1,37 @@
+package application;
+
+import chess.archive.PgnConverter;
+import chess.pgn.ReplayProgress;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+public class ArchiveTool {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: ArchiveTool <file.pgn> <archive> [threads]");
+            System.out.println("Converts a PGN file to the binary game archive format");
+            return;
+        }
+        Path pgn = Path.of(args[0]);
+        Path archive = Path.of(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ReplayProgress result = new PgnConverter(pool).convert(pgn, archive, System.out::println);
+        pool.shutdown();
+
+        long pgnBytes = Files.size(pgn);
+        long archiveBytes = Files.size(archive);
+        System.out.println();
+        System.out.println("Games: " + result.getValidGames());
+        System.out.println("Skipped: " + (result.getInvalidGames() + result.getUnsupportedGames()));
+        System.out.println("Moves: " + result.getMoves());
+        System.out.println("PGN size: " + pgnBytes);
+        System.out.println("Archive size: " + archiveBytes);
+        System.out.printf("Ratio: %.1fx%n", (double) pgnBytes / Math.max(1, archiveBytes));
+        System.out.printf("Time: %.3f s%n", result.getTimeMillis() / 1e3);
+    }
+}
@@ -0,0 +1,148 @@
+package application;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//plays random games against a running GameServer and reports how long each move took to be answered
+public class LoadTool {
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        if (args.length < 3) {
+            System.out.println("Usage: LoadTool <host> <port> <connections> [games per connection] [seconds]");
+            return;
+        }
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        int connections = Integer.parseInt(args[2]);
+        int games = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+
+        ExecutorService pool = Executors.newFixedThreadPool(connections);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Client>> futures = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            Client client = new Client(host, port, games, i);
+            futures.add(pool.submit(() -> client.run(deadline)));
+        }
+        List<Client> clients = new ArrayList<>();
+        for (Future<Client> future : futures) {
+            clients.add(future.get());
+        }
+        pool.shutdown();
+
+        int count = 0;
+        long finished = 0;
+        for (Client client : clients) {
+            count += client.count;
+            finished += client.finished;
+        }
+        long[] latencies = new long[count];
+        int offset = 0;
+        for (Client client : clients) {
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            offset += client.count;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%d connections, %d concurrent games, %d games finished%n", connections, connections * games, finished);
+        System.out.printf("%d moves in %d s, %.0f moves/s%n", count, seconds, count / (double) seconds);
+        if (count > 0) {
+            System.out.printf("Move latency (us): p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                    percentile(latencies, 0.999), latencies[count - 1] / 1e3);
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e3;
+    }
+
+    private static final class Client {
+        private final String host;
+        private final int port;
+        private final long[] ids;
+        private final Random random;
+
+        private BufferedReader in;
+        private Writer out;
+        private long[] latencies = new long[1 << 16];
+        private int count;
+        private long finished;
+
+        Client(String host, int port, int games, long seed) {
+            this.host = host;
+            this.port = port;
+            this.ids = new long[games];
+            this.random = new Random(seed);
+        }
+
+        Client run(long deadline) throws IOException {
+            try (Socket socket = new Socket(host, port)) {
+                socket.setTcpNoDelay(true);
+                in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = Long.parseLong(request("NEW"));
+                }
+                while (System.nanoTime() < deadline) {
+                    for (int i = 0; i < ids.length; i++) {
+                        play(i);
+                    }
+                }
+                for (long id : ids) {
+                    request("END " + id);
+                }
+                out.write("QUIT\n");
+                out.flush();
+            }
+            return this;
+        }
+
+        //one random move in game i, replacing the game once it ends
+        private void play(int i) throws IOException {
+            String[] moves = request("MOVES " + ids[i]).split(" ");
+            String move = moves[random.nextInt(moves.length)];
+            long start = System.nanoTime();
+            String status = request("MOVE " + ids[i] + " " + move);
+            record(System.nanoTime() - start);
+            //the server ends games by mate, stalemate or any of the draw rules and drops them right away
+            if (!status.isEmpty() && !status.equals("CHECK")) {
+                ids[i] = Long.parseLong(request("NEW"));
+                finished++;
+            }
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+
+        private String request(String line) throws IOException {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+            String response = in.readLine();
+            if (response == null) {
+                throw new IOException("The server closed the connection");
+            }
+            if (!response.startsWith("OK")) {
+                throw new IOException(line + ": " + response);
+            }
+            return response.length() > 3 ? response.substring(3) : "";
+        }
+    }
+}
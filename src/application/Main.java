@@ -16,7 +16,7 @@ public class Main {
         ChessMatch chessMatch = new ChessMatch();
         List<ChessPiece> captured = new ArrayList<>();
 
-        while (!chessMatch.getCheckmate()) {
+        while (!chessMatch.getResult().isOver()) {
             try {
                 UI.clearScreen();
                 UI.printMatch(chessMatch, captured);
@@ -0,0 +1,53 @@
+package application;
+
+import chess.ChessMatch;
+import chess.ChessPosition;
+import chess.Perft;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class PerftTool {
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: PerftTool <depth> [threads] [fen] [moves...]");
+            System.out.println("The FEN is given as one quoted argument and defaults to the initial position");
+            System.out.println("Moves are given as source and target squares, e.g. e2e4 e7e5");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        int first = 2;
+        ChessMatch chessMatch;
+        if (args.length > 2 && args[2].indexOf('/') >= 0) {
+            chessMatch = new ChessMatch(args[2]);
+            first++;
+        } else {
+            chessMatch = new ChessMatch();
+        }
+        for (int i = first; i < args.length; i++) {
+            String move = args[i];
+            chessMatch.performChessMove(
+                    new ChessPosition(move.charAt(0), move.charAt(1) - '0'),
+                    new ChessPosition(move.charAt(2), move.charAt(3) - '0'));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        Map<String, Long> divide = Perft.divide(chessMatch, depth, pool);
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        long nodes = 0;
+        for (Map.Entry<String, Long> entry : divide.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            nodes += entry.getValue();
+        }
+        System.out.println();
+        System.out.println("Moves: " + divide.size());
+        System.out.println("Nodes: " + nodes);
+        System.out.printf("Time: %.3f s%n", elapsed / 1e9);
+        System.out.printf("Nodes/second: %.0f%n", nodes / (elapsed / 1e9));
+    }
+}
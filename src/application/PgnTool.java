@@ -0,0 +1,31 @@
+package application;
+
+import chess.pgn.PgnReplay;
+import chess.pgn.ReplayProgress;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+public class PgnTool {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: PgnTool <file.pgn> [threads]");
+            System.out.println("Replays and validates every game in the file");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ReplayProgress result = new PgnReplay(pool).replay(Path.of(args[0]), System.out::println);
+        pool.shutdown();
+
+        System.out.println();
+        System.out.println("Games: " + result.getGames());
+        System.out.println("Valid: " + result.getValidGames());
+        System.out.println("Invalid: " + result.getInvalidGames());
+        System.out.println("Unsupported: " + result.getUnsupportedGames());
+        System.out.println("Moves: " + result.getMoves());
+        System.out.printf("Time: %.3f s%n", result.getTimeMillis() / 1e3);
+    }
+}
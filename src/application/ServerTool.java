@@ -0,0 +1,23 @@
+package application;
+
+import chess.server.GameServer;
+
+import java.io.IOException;
+
+public class ServerTool {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : GameServer.DEFAULT_PORT;
+        int stripes = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        GameServer server = new GameServer(port, stripes);
+        server.start();
+        System.out.println("Listening on port " + server.getPort() + " with " + stripes + " session stripes");
+        long lastMoves = 0;
+        while (true) {
+            Thread.sleep(10_000);
+            long moves = server.getMoveCount();
+            System.out.printf("%d games, %d moves, %.0f moves/s%n", server.getGameCount(), moves, (moves - lastMoves) / 10.0);
+            lastMoves = moves;
+        }
+    }
+}
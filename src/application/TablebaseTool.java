@@ -0,0 +1,38 @@
+package application;
+
+import chess.tablebase.TablebaseGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+public class TablebaseTool {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: TablebaseTool <directory> [signatures...]");
+            System.out.println("Generates KQK, KRK and KBNK unless signatures are given; pawn endings need promotion");
+            return;
+        }
+        Path directory = Path.of(args[0]);
+        Files.createDirectories(directory);
+        String[] signatures = args.length > 1
+                ? Arrays.copyOfRange(args, 1, args.length)
+                : new String[]{"KQK", "KRK", "KBNK"};
+
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        for (String signature : signatures) {
+            long start = System.nanoTime();
+            TablebaseGenerator generator = new TablebaseGenerator(signature, pool);
+            generator.generate();
+            Path file = directory.resolve(signature + ".tb");
+            generator.write(file);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%s: %d positions per side, %d wins, longest mate %d plies, %d bytes, %.3f s%n",
+                    signature, generator.getPositions(), generator.countWins(), generator.getLongestMate(),
+                    Files.size(file), elapsed / 1e9);
+        }
+        pool.shutdown();
+    }
+}
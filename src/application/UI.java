@@ -40,7 +40,9 @@ public class UI {
         printBoard(chessMatch.getPieces());
         System.out.println();
         System.out.println("Turn: " + chessMatch.getTurn());
-        if (!chessMatch.getCheckmate()) {
+        if (chessMatch.getResult().isDraw()) {
+            System.out.println("DRAW: " + chessMatch.getResult());
+        } else if (!chessMatch.getCheckmate()) {
             System.out.println("Waiting player: " + chessMatch.getCurrentPlayer());
             printCapturedPieces(captured);
             if (chessMatch.getCheck()) {
@@ -48,7 +50,8 @@ public class UI {
             }
         } else {
             System.out.println("CHECKMATE!");
-            System.out.println("Winner: " + chessMatch.getCurrentPlayer());
+            //the mated side is the one to move
+            System.out.println("Winner: " + (chessMatch.getCurrentPlayer() == Color.WHITE ? Color.BLACK : Color.WHITE));
         }
 
     }
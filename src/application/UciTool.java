@@ -0,0 +1,20 @@
+package application;
+
+import chess.uci.UciEngine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+public class UciTool {
+    public static void main(String[] args) throws IOException {
+        //GUIs send the whole game on every move, so read in large blocks
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII), 1 << 16);
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII), 1 << 16);
+        new UciEngine(in, out).run();
+        out.flush();
+    }
+}
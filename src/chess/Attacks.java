@@ -0,0 +1,251 @@
+package chess;
+
+public final class Attacks {
+    public static final long RANK_3 = 0x0000FF0000000000L;
+    public static final long RANK_6 = 0x0000000000FF0000L;
+
+    private static final int[][] KNIGHT_OFFSETS = {{-1, -2}, {-2, -1}, {-1, 2}, {-2, 1}, {1, 2}, {2, 1}, {1, -2}, {2, -1}};
+    private static final int[][] KING_OFFSETS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}, {-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    //north, south, west, east, northwest, northeast, southwest, southeast
+    private static final int[][] DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}, {-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final long[] KNIGHT = new long[ChessBoard.SQUARES];
+    private static final long[] KING = new long[ChessBoard.SQUARES];
+    private static final long[][] PAWN = new long[2][ChessBoard.SQUARES];
+    private static final int[] OPPOSITE_DIRECTIONS = {1, 0, 3, 2, 7, 6, 5, 4};
+    private static final long[][] RAYS = new long[DIRECTIONS.length][ChessBoard.SQUARES];
+    private static final long[][] BETWEEN = new long[ChessBoard.SQUARES][ChessBoard.SQUARES];
+    private static final long[][] LINE = new long[ChessBoard.SQUARES][ChessBoard.SQUARES];
+
+    private static final long[] ROOK_MAGIC_NUMBERS = {
+            0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+            0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+            0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+            0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+            0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+            0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+            0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+            0x0050500500080100L, 0x0000020080040080L, 0x0C10010400420810L, 0x1040008200005104L,
+            0x01808240088004A0L, 0x0882804004802000L, 0x0880402001001100L, 0x2000210409001000L,
+            0x2000480131001500L, 0x0000800400800200L, 0x000002380C001003L, 0x4600084882000431L,
+            0x0080002000504000L, 0x0300500020004002L, 0x0040408200220011L, 0x0010040008004040L,
+            0x0000080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+            0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+            0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+            0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+            0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+    };
+    private static final long[] BISHOP_MAGIC_NUMBERS = {
+            0x20C0090901061081L, 0x0024040094030104L, 0x8210810200290200L, 0x0011040484620000L,
+            0x0081104002221000L, 0x0009012011001350L, 0x0081010802400380L, 0x0000420210010408L,
+            0x0008105002280050L, 0x0001028484040044L, 0x2A00880810408804L, 0x7020022282000100L,
+            0x0084040420100A50L, 0x000401010840E000L, 0x2020020210420888L, 0x0008084202012010L,
+            0x2010400810018800L, 0x0445122008020840L, 0x0804100808002008L, 0x0008002104110100L,
+            0x0061005820080800L, 0x2001000200820100L, 0x480C210084010800L, 0x3004442500480420L,
+            0x1010102240048100L, 0x00182009084220A3L, 0x8803090A10004205L, 0x0208080040202020L,
+            0x000C044084010040L, 0x00A1010002004106L, 0x6008210020640202L, 0x1600902112860801L,
+            0x00042008C1220200L, 0x010C042002440140L, 0x5022080200040820L, 0x0402004042940100L,
+            0x0860108400008020L, 0x000C080022021000L, 0x0264080652822100L, 0x4005031221010401L,
+            0x0004502410008400L, 0x000500B010A20400L, 0x0415094050080800L, 0x080000201800A104L,
+            0x4022A80304000110L, 0x4012140802028020L, 0x40200104010100A0L, 0x12810806008B0C41L,
+            0x0020441008080000L, 0x2002120084045420L, 0x0704020062080002L, 0x0000001084040001L,
+            0x0322200891240200L, 0xF040200210024800L, 0x0140824832008042L, 0x000210020A004602L,
+            0x0083042805141020L, 0x002C12009A011000L, 0x0041A00044140400L, 0x00004004020A0202L,
+            0x0000140010020210L, 0x2864160811012200L, 0x2060080841082A17L, 0xA010041108003100L
+    };
+
+    private static final Magic[] ROOK_MAGICS = new Magic[ChessBoard.SQUARES];
+    private static final Magic[] BISHOP_MAGICS = new Magic[ChessBoard.SQUARES];
+
+    static {
+        for (int square = 0; square < ChessBoard.SQUARES; square++) {
+            int row = ChessBoard.row(square);
+            int column = ChessBoard.column(square);
+            KNIGHT[square] = offsets(row, column, KNIGHT_OFFSETS);
+            KING[square] = offsets(row, column, KING_OFFSETS);
+            PAWN[Color.WHITE.ordinal()][square] = offsets(row, column, new int[][] {{-1, -1}, {-1, 1}});
+            PAWN[Color.BLACK.ordinal()][square] = offsets(row, column, new int[][] {{1, -1}, {1, 1}});
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                long ray = 0L;
+                int r = row + DIRECTIONS[d][0];
+                int c = column + DIRECTIONS[d][1];
+                while (exists(r, c)) {
+                    ray |= 1L << ChessBoard.square(r, c);
+                    r += DIRECTIONS[d][0];
+                    c += DIRECTIONS[d][1];
+                }
+                RAYS[d][square] = ray;
+            }
+        }
+        for (int square = 0; square < ChessBoard.SQUARES; square++) {
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                long line = RAYS[d][square] | RAYS[OPPOSITE_DIRECTIONS[d]][square] | 1L << square;
+                long ray = RAYS[d][square];
+                while (ray != 0) {
+                    int target = Long.numberOfTrailingZeros(ray);
+                    BETWEEN[square][target] = RAYS[d][square] & ~RAYS[d][target] & ~(1L << target);
+                    LINE[square][target] = line;
+                    ray &= ray - 1;
+                }
+            }
+        }
+        for (int square = 0; square < ChessBoard.SQUARES; square++) {
+            ROOK_MAGICS[square] = magic(square, true, ROOK_MAGIC_NUMBERS[square]);
+            BISHOP_MAGICS[square] = magic(square, false, BISHOP_MAGIC_NUMBERS[square]);
+        }
+    }
+
+    private Attacks() {
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    public static long pawnAttacks(Color color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK_MAGICS[square].attacks(occupied);
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP_MAGICS[square].attacks(occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return ROOK_MAGICS[square].attacks(occupied) | BISHOP_MAGICS[square].attacks(occupied);
+    }
+
+    //the attack rule of any piece type, for code that works on squares rather than ChessPiece objects
+    public static long attacks(PieceType type, Color color, int square, long occupied) {
+        return switch (type) {
+            case PAWN -> pawnAttacks(color, square);
+            case KNIGHT -> knightAttacks(square);
+            case BISHOP -> bishopAttacks(square, occupied);
+            case ROOK -> rookAttacks(square, occupied);
+            case QUEEN -> queenAttacks(square, occupied);
+            case KING -> kingAttacks(square);
+        };
+    }
+
+    //single and double pushes onto empty squares
+    public static long pawnPushes(Color color, int square, long empty) {
+        if (color == Color.WHITE) {
+            long single = (1L << square) >>> 8 & empty;
+            return single | (single & RANK_3) >>> 8 & empty;
+        }
+        long single = (1L << square) << 8 & empty;
+        return single | (single & RANK_6) << 8 & empty;
+    }
+
+    //squares strictly between two squares on a common line, empty otherwise
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    //the whole rank, file or diagonal through both squares, empty otherwise
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    private static long slidingAttacks(int square, long occupied, boolean rook) {
+        if (rook) {
+            return negativeRay(0, square, occupied) | positiveRay(1, square, occupied)
+                    | negativeRay(2, square, occupied) | positiveRay(3, square, occupied);
+        }
+        return negativeRay(4, square, occupied) | negativeRay(5, square, occupied)
+                | positiveRay(6, square, occupied) | positiveRay(7, square, occupied);
+    }
+
+    private static Magic magic(int square, boolean rook, long magic) {
+        long mask = relevantOccupancy(square, rook);
+        int shift = 64 - Long.bitCount(mask);
+        long[] table = new long[1 << Long.bitCount(mask)];
+        boolean[] filled = new boolean[table.length];
+        //enumerate every subset of the mask (Carry-Rippler)
+        long occupied = 0L;
+        do {
+            int index = (int) ((occupied * magic) >>> shift);
+            long attacks = slidingAttacks(square, occupied, rook);
+            if (filled[index] && table[index] != attacks) {
+                throw new IllegalStateException("Invalid magic number for square " + square);
+            }
+            filled[index] = true;
+            table[index] = attacks;
+            occupied = (occupied - mask) & mask;
+        } while (occupied != 0);
+        return new Magic(mask, magic, shift, table);
+    }
+
+    private static long relevantOccupancy(int square, boolean rook) {
+        long mask = 0L;
+        int first = rook ? 0 : 4;
+        for (int d = first; d < first + 4; d++) {
+            //the last square of a ray never blocks anything behind it
+            long ray = RAYS[d][square];
+            long edge = d == 0 || d == 2 || d == 4 || d == 5
+                    ? Long.lowestOneBit(ray)
+                    : Long.highestOneBit(ray);
+            mask |= ray & ~edge;
+        }
+        return mask;
+    }
+
+    private static long positiveRay(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            ray ^= RAYS[direction][Long.numberOfTrailingZeros(blockers)];
+        }
+        return ray;
+    }
+
+    private static long negativeRay(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            ray ^= RAYS[direction][63 - Long.numberOfLeadingZeros(blockers)];
+        }
+        return ray;
+    }
+
+    private static long offsets(int row, int column, int[][] offsets) {
+        long attacks = 0L;
+        for (int[] offset : offsets) {
+            int r = row + offset[0];
+            int c = column + offset[1];
+            if (exists(r, c)) {
+                attacks |= 1L << ChessBoard.square(r, c);
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean exists(int row, int column) {
+        return row >= 0 && row < ChessBoard.SIZE && column >= 0 && column < ChessBoard.SIZE;
+    }
+
+    private static final class Magic {
+        private final long mask;
+        private final long magic;
+        private final int shift;
+        private final long[] attacks;
+
+        private Magic(long mask, long magic, int shift, long[] attacks) {
+            this.mask = mask;
+            this.magic = magic;
+            this.shift = shift;
+            this.attacks = attacks;
+        }
+
+        private long attacks(long occupied) {
+            return attacks[(int) (((occupied & mask) * magic) >>> shift)];
+        }
+    }
+}
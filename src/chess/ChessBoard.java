@@ -0,0 +1,177 @@
+package chess;
+
+import boardgame.Board;
+import boardgame.Piece;
+import boardgame.Position;
+
+public class ChessBoard extends Board {
+    public static final int SIZE = 8;
+    public static final int SQUARES = SIZE * SIZE;
+
+    //shared square positions for internal moves; never mutated
+    private static final Position[] POSITIONS = new Position[SQUARES];
+
+    static {
+        for (int square = 0; square < SQUARES; square++) {
+            POSITIONS[square] = new Position(row(square), column(square));
+        }
+    }
+
+    private final long[] pieceBitboards = new long[12];
+    private final long[] colorBitboards = new long[2];
+    private long occupied;
+    private long key;
+    private long pawnKey;
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+    private final ChessPiece[] squares = new ChessPiece[SQUARES];
+
+    public ChessBoard() {
+        super(SIZE, SIZE);
+    }
+
+    public static int square(int row, int column) {
+        return row * SIZE + column;
+    }
+
+    public static int square(Position position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    public static int row(int square) {
+        return square >>> 3;
+    }
+
+    public static int column(int square) {
+        return square & 7;
+    }
+
+    public static Position position(int square) {
+        return new Position(row(square), column(square));
+    }
+
+    static Position sharedPosition(int square) {
+        return POSITIONS[square];
+    }
+
+    public long pieces(Color color, PieceType type) {
+        return pieceBitboards[index(color, type)];
+    }
+
+    public long pieces(Color color) {
+        return colorBitboards[color.ordinal()];
+    }
+
+    public long occupied() {
+        return occupied;
+    }
+
+    public long key() {
+        return key;
+    }
+
+    //hashes only pawns and kings, the pieces pawn structure terms depend on
+    public long pawnKey() {
+        return pawnKey;
+    }
+
+    //material and piece-square totals from white's point of view, kept up to date on every place and remove
+    public int middlegameScore() {
+        return middlegameScore;
+    }
+
+    public int endgameScore() {
+        return endgameScore;
+    }
+
+    public int phase() {
+        return phase;
+    }
+
+    public ChessPiece pieceAt(int square) {
+        return squares[square];
+    }
+
+    public boolean isSquareAttacked(int square, Color by) {
+        return isSquareAttacked(square, by, occupied);
+    }
+
+    public boolean isSquareAttacked(int square, Color by, long occupied) {
+        if ((Attacks.knightAttacks(square) & pieces(by, PieceType.KNIGHT)) != 0) {
+            return true;
+        }
+        //a pawn of color c attacks the squares a pawn of the other color would capture from there
+        Color other = by == Color.WHITE ? Color.BLACK : Color.WHITE;
+        if ((Attacks.pawnAttacks(other, square) & pieces(by, PieceType.PAWN)) != 0) {
+            return true;
+        }
+        if ((Attacks.kingAttacks(square) & pieces(by, PieceType.KING)) != 0) {
+            return true;
+        }
+        long queens = pieces(by, PieceType.QUEEN);
+        if ((Attacks.bishopAttacks(square, occupied) & (pieces(by, PieceType.BISHOP) | queens)) != 0) {
+            return true;
+        }
+        return (Attacks.rookAttacks(square, occupied) & (pieces(by, PieceType.ROOK) | queens)) != 0;
+    }
+
+    public long attackers(int square, Color by, long occupied) {
+        Color other = by == Color.WHITE ? Color.BLACK : Color.WHITE;
+        long queens = pieces(by, PieceType.QUEEN);
+        return (Attacks.knightAttacks(square) & pieces(by, PieceType.KNIGHT))
+                | (Attacks.pawnAttacks(other, square) & pieces(by, PieceType.PAWN))
+                | (Attacks.kingAttacks(square) & pieces(by, PieceType.KING))
+                | (Attacks.bishopAttacks(square, occupied) & (pieces(by, PieceType.BISHOP) | queens))
+                | (Attacks.rookAttacks(square, occupied) & (pieces(by, PieceType.ROOK) | queens));
+    }
+
+    @Override
+    public void placePiece(Piece piece, Position position) {
+        super.placePiece(piece, position);
+        ChessPiece chessPiece = (ChessPiece) piece;
+        int square = square(position);
+        long bit = 1L << square;
+        pieceBitboards[index(chessPiece.getColor(), chessPiece.getType())] |= bit;
+        colorBitboards[chessPiece.getColor().ordinal()] |= bit;
+        occupied |= bit;
+        squares[square] = chessPiece;
+        key ^= Zobrist.piece(chessPiece.getColor(), chessPiece.getType(), square);
+        middlegameScore += PieceSquareTables.middlegame(chessPiece.getColor(), chessPiece.getType(), square);
+        endgameScore += PieceSquareTables.endgame(chessPiece.getColor(), chessPiece.getType(), square);
+        phase += PieceSquareTables.phase(chessPiece.getType());
+        if (isPawnOrKing(chessPiece)) {
+            pawnKey ^= Zobrist.piece(chessPiece.getColor(), chessPiece.getType(), square);
+        }
+    }
+
+    @Override
+    public Piece removePiece(Position position) {
+        Piece piece = super.removePiece(position);
+        if (piece != null) {
+            ChessPiece chessPiece = (ChessPiece) piece;
+            int square = square(position);
+            long bit = ~(1L << square);
+            pieceBitboards[index(chessPiece.getColor(), chessPiece.getType())] &= bit;
+            colorBitboards[chessPiece.getColor().ordinal()] &= bit;
+            occupied &= bit;
+            squares[square] = null;
+            key ^= Zobrist.piece(chessPiece.getColor(), chessPiece.getType(), square);
+            middlegameScore -= PieceSquareTables.middlegame(chessPiece.getColor(), chessPiece.getType(), square);
+            endgameScore -= PieceSquareTables.endgame(chessPiece.getColor(), chessPiece.getType(), square);
+            phase -= PieceSquareTables.phase(chessPiece.getType());
+            if (isPawnOrKing(chessPiece)) {
+                pawnKey ^= Zobrist.piece(chessPiece.getColor(), chessPiece.getType(), square);
+            }
+        }
+        return piece;
+    }
+
+    private static boolean isPawnOrKing(ChessPiece piece) {
+        return piece.getType() == PieceType.PAWN || piece.getType() == PieceType.KING;
+    }
+
+    private static int index(Color color, PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+}
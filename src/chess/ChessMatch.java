@@ -1,30 +1,240 @@
 package chess;
 
-import boardgame.Board;
 import boardgame.Piece;
 import boardgame.Position;
 import chess.exceptions.ChessException;
 import chess.pieces.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ChessMatch {
-    private final Board board;
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    //a draw can be claimed after 50 moves by each side without a capture or pawn move
+    public static final int FIFTY_MOVE_PLIES = 100;
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final int INITIAL_HISTORY = 256;
+
+    //packed layout of a history entry's state word
+    private static final int EN_PASSANT_BITS = 7;
+    private static final int CASTLING_SHIFT = 7;
+    private static final long CHECK = 1L << 11;
+    private static final int RESULT_SHIFT = 12;
+    private static final long BLACK_TO_MOVE = 1L << 15;
+    private static final int HALFMOVE_SHIFT = 16;
+    private static final int TURN_SHIFT = 36;
+
+    private static final GameResult[] RESULTS = GameResult.values();
+    private static final long LIGHT_SQUARES = 0xAA55AA55AA55AA55L;
+    private static final String FEN_PIECES = "PNBRQK";
+
+    private static final int ALL_MOVES = 0;
+    private static final int CAPTURES = 1;
+    private static final int QUIET_MOVES = 2;
+
+    private final ChessBoard board;
     private Color currentPlayer;
     private int turn;
     private boolean check;
-    private boolean checkmate;
+    private GameResult result = GameResult.IN_PROGRESS;
     private ChessPiece enPassant;
-
-    private final List<Piece> piecesOnBoard = new ArrayList<>();
+    private int enPassantColumn = -1;
+    private int castlingRights;
+    //moves since the last capture or pawn move
+    private int halfmoveClock;
+    //side to move, castling and en passant part of the key; pieces are hashed by the board
+    private long stateKey;
+
+    //replaced after every performChessMove, playMove, undo and redo; readers never need to lock
+    private volatile PositionSnapshot snapshot;
+
+    private final PieceList[] piecesOnBoard = {new PieceList(), new PieceList()};
+    private final int[] kingSquares = new int[2];
     private final List<Piece> captured = new ArrayList<>();
+    private final MoveList legalMoveList = new MoveList();
+    //legalMoveList holds the side to move's legal moves until the position changes, so replaying a game
+    //doesn't generate them twice per move
+    private boolean legalMovesCached;
+
+    //move history: entry i holds move i and everything it can't be reversed from, packed into primitives
+    private int[] historyMoves = new int[INITIAL_HISTORY];
+    private long[] historyStates = new long[INITIAL_HISTORY];
+    private long[] historyKeys = new long[INITIAL_HISTORY];
+    private Piece[] historyCaptured = new Piece[INITIAL_HISTORY];
+    private int ply;
+    //moves taken back by undo(), the last one on top; only playMove and performChessMove clear it, so a search or
+    //perft on the match leaves it alone
+    private int[] redoMoves = new int[INITIAL_HISTORY];
+    private int redoCount;
 
     public ChessMatch() {
-        this.board = new Board(8, 8);
+        this.board = new ChessBoard();
         turn = 1;
         currentPlayer = Color.WHITE;
         initialSetup();
+        castlingRights = castlingRights();
+        stateKey = Zobrist.castling(castlingRights);
+        snapshot = PositionSnapshot.of(this, Move.NONE);
+    }
+
+    //builds the position described by a FEN record; the halfmove clock and move number may be left out
+    public ChessMatch(String fen) {
+        this.board = new ChessBoard();
+        int length = fen.length();
+        int i = 0;
+        int row = 0;
+        int column = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (column != ChessBoard.SIZE || ++row >= ChessBoard.SIZE) {
+                    throw invalidFen(fen);
+                }
+                column = 0;
+            } else if (c >= '1' && c <= '8') {
+                column += c - '0';
+                if (column > ChessBoard.SIZE) {
+                    throw invalidFen(fen);
+                }
+            } else {
+                if (column >= ChessBoard.SIZE) {
+                    throw invalidFen(fen);
+                }
+                placeNewPiece(newPiece(c, fen), ChessBoard.square(row, column++));
+            }
+        }
+        if (row != ChessBoard.SIZE - 1 || column != ChessBoard.SIZE
+                || Long.bitCount(board.pieces(Color.WHITE, PieceType.KING)) != 1
+                || Long.bitCount(board.pieces(Color.BLACK, PieceType.KING)) != 1) {
+            throw invalidFen(fen);
+        }
+
+        i = skipSpace(fen, i);
+        if (i >= length || (fen.charAt(i) != 'w' && fen.charAt(i) != 'b')) {
+            throw invalidFen(fen);
+        }
+        currentPlayer = fen.charAt(i++) == 'w' ? Color.WHITE : Color.BLACK;
+
+        int rights = 0;
+        i = skipSpace(fen, i);
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else {
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                switch (fen.charAt(i)) {
+                    case 'K' -> rights |= WHITE_KINGSIDE;
+                    case 'Q' -> rights |= WHITE_QUEENSIDE;
+                    case 'k' -> rights |= BLACK_KINGSIDE;
+                    case 'q' -> rights |= BLACK_QUEENSIDE;
+                    default -> throw invalidFen(fen);
+                }
+            }
+        }
+        //castling rights live in the move counts of kings and rooks, so pieces without a right count as moved
+        for (PieceList pieces : piecesOnBoard) {
+            for (int j = 0; j < pieces.size(); j++) {
+                ChessPiece piece = pieces.get(j);
+                if (piece instanceof King || piece instanceof Rook) {
+                    piece.setMoveCount(1);
+                }
+            }
+        }
+        grantCastling(rights, WHITE_KINGSIDE, 60, 63);
+        grantCastling(rights, WHITE_QUEENSIDE, 60, 56);
+        grantCastling(rights, BLACK_KINGSIDE, 4, 7);
+        grantCastling(rights, BLACK_QUEENSIDE, 4, 0);
+        castlingRights = castlingRights();
+        if (castlingRights != rights) {
+            throw invalidFen(fen);
+        }
+        stateKey = Zobrist.castling(castlingRights);
+        if (currentPlayer == Color.BLACK) {
+            stateKey ^= Zobrist.side();
+        }
+
+        i = skipSpace(fen, i);
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else if (i + 1 < length) {
+            int target = ChessBoard.square(new ChessPosition(fen.charAt(i), fen.charAt(i + 1) - '0').toPosition());
+            //the pawn that just moved two squares stands in front of the target square
+            int pawnSquare = currentPlayer == Color.WHITE ? target + 8 : target - 8;
+            ChessPiece pawn = pawnSquare >= 0 && pawnSquare < ChessBoard.SQUARES ? board.pieceAt(pawnSquare) : null;
+            if (!(pawn instanceof Pawn) || pawn.getColor() == currentPlayer) {
+                throw invalidFen(fen);
+            }
+            setEnPassant(pawn);
+            i += 2;
+        } else {
+            throw invalidFen(fen);
+        }
+
+        i = skipSpace(fen, i);
+        int end = nextSpace(fen, i);
+        halfmoveClock = i < end ? parseNumber(fen, i, end) : 0;
+        i = skipSpace(fen, end);
+        end = nextSpace(fen, i);
+        int fullmove = i < end ? parseNumber(fen, i, end) : 1;
+        turn = 2 * Math.max(fullmove, 1) - (currentPlayer == Color.WHITE ? 1 : 0);
+
+        if (testCheck(opponent(currentPlayer))) {
+            throw new ChessException("Invalid FEN, the side not to move is in check: " + fen);
+        }
+        check = testCheck(currentPlayer);
+        generateLegalMoves(currentPlayer, legalMoveList);
+        legalMovesCached = true;
+        updateResult();
+        snapshot = PositionSnapshot.of(this, Move.NONE);
+    }
+
+    public ChessMatch(ChessMatch other) {
+        this.board = new ChessBoard();
+        turn = other.turn;
+        currentPlayer = other.currentPlayer;
+        check = other.check;
+        result = other.result;
+
+        for (PieceList pieces : other.piecesOnBoard) {
+            for (int i = 0; i < pieces.size(); i++) {
+                ChessPiece piece = pieces.get(i);
+                ChessPiece copy = copyPiece(piece);
+                placeNewPiece(copy, piece.getSquare());
+                if (piece == other.enPassant) {
+                    enPassant = copy;
+                }
+            }
+        }
+        //the history points at captured pieces, so it has to point at their copies
+        Map<Piece, Piece> copies = new IdentityHashMap<>();
+        for (Piece p : other.captured) {
+            Piece copy = copyPiece((ChessPiece) p);
+            captured.add(copy);
+            copies.put(p, copy);
+        }
+        ply = other.ply;
+        historyMoves = other.historyMoves.clone();
+        historyStates = other.historyStates.clone();
+        historyKeys = other.historyKeys.clone();
+        historyCaptured = new Piece[other.historyCaptured.length];
+        for (int i = 0; i < ply; i++) {
+            historyCaptured[i] = copies.get(other.historyCaptured[i]);
+        }
+        redoMoves = other.redoMoves.clone();
+        redoCount = other.redoCount;
+        enPassantColumn = other.enPassantColumn;
+        castlingRights = other.castlingRights;
+        halfmoveClock = other.halfmoveClock;
+        stateKey = other.stateKey;
+        snapshot = other.snapshot;
     }
 
     public ChessPiece[][] getPieces() {
@@ -52,16 +262,97 @@ public class ChessMatch {
     }
 
     public boolean getCheckmate() {
-        return checkmate;
+        return result == GameResult.CHECKMATE;
+    }
+
+    public boolean getStalemate() {
+        return result == GameResult.STALEMATE;
+    }
+
+    public GameResult getResult() {
+        return result;
     }
 
     public ChessPiece getEnPassant() {
         return enPassant;
     }
 
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    //the position after the last move made through performChessMove, fetched without locking or copying
+    public PositionSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public ChessBoard getBoard() {
+        return board;
+    }
+
+    public long getZobristKey() {
+        return board.key() ^ stateKey;
+    }
+
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        for (int row = 0; row < ChessBoard.SIZE; row++) {
+            int empty = 0;
+            for (int column = 0; column < ChessBoard.SIZE; column++) {
+                ChessPiece piece = board.pieceAt(ChessBoard.square(row, column));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                char letter = FEN_PIECES.charAt(piece.getType().ordinal());
+                fen.append(piece.getColor() == Color.WHITE ? letter : Character.toLowerCase(letter));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row < ChessBoard.SIZE - 1) {
+                fen.append('/');
+            }
+        }
+        fen.append(currentPlayer == Color.WHITE ? " w " : " b ");
+        if (castlingRights == 0) {
+            fen.append('-');
+        } else {
+            if ((castlingRights & WHITE_KINGSIDE) != 0) {
+                fen.append('K');
+            }
+            if ((castlingRights & WHITE_QUEENSIDE) != 0) {
+                fen.append('Q');
+            }
+            if ((castlingRights & BLACK_KINGSIDE) != 0) {
+                fen.append('k');
+            }
+            if ((castlingRights & BLACK_QUEENSIDE) != 0) {
+                fen.append('q');
+            }
+        }
+        fen.append(' ');
+        if (enPassant != null && enPassant.getSquare() >= 0) {
+            int target = enPassant.getColor() == Color.WHITE ? enPassant.getSquare() + 8 : enPassant.getSquare() - 8;
+            fen.append((char) ('a' + ChessBoard.column(target))).append(ChessBoard.SIZE - ChessBoard.row(target));
+        } else {
+            fen.append('-');
+        }
+        fen.append(' ').append(halfmoveClock).append(' ').append((turn + 1) / 2);
+        return fen.toString();
+    }
+
     private void initialSetup() {
         //whites
-        placeNewPiece('e', 1, new King(this, board, Color.WHITE));
+        placeNewPiece('e', 1, new King(board, Color.WHITE));
         placeNewPiece('d', 1, new Queen(board, Color.WHITE));
         placeNewPiece('a', 1, new Rook(board, Color.WHITE));
         placeNewPiece('h', 1, new Rook(board, Color.WHITE));
@@ -78,7 +369,7 @@ public class ChessMatch {
         placeNewPiece('g', 2, new Pawn(this, board, Color.WHITE));
         placeNewPiece('h', 2, new Pawn(this, board, Color.WHITE));
         //blacks
-        placeNewPiece('e', 8, new King(this, board, Color.BLACK));
+        placeNewPiece('e', 8, new King(board, Color.BLACK));
         placeNewPiece('d', 8, new Queen(board, Color.BLACK));
         placeNewPiece('h', 8, new Rook(board, Color.BLACK));
         placeNewPiece('a', 8, new Rook(board, Color.BLACK));
@@ -96,9 +387,87 @@ public class ChessMatch {
         placeNewPiece('h', 7, new Pawn(this, board, Color.BLACK));
     }
 
+    private ChessPiece newPiece(char letter, String fen) {
+        Color color = Character.isUpperCase(letter) ? Color.WHITE : Color.BLACK;
+        return switch (Character.toUpperCase(letter)) {
+            case 'P' -> new Pawn(this, board, color);
+            case 'N' -> new Knight(board, color);
+            case 'B' -> new Bishop(board, color);
+            case 'R' -> new Rook(board, color);
+            case 'Q' -> new Queen(board, color);
+            case 'K' -> new King(board, color);
+            default -> throw invalidFen(fen);
+        };
+    }
+
+    private void grantCastling(int rights, int right, int kingSquare, int rookSquare) {
+        if ((rights & right) != 0) {
+            ChessPiece king = board.pieceAt(kingSquare);
+            ChessPiece rook = board.pieceAt(rookSquare);
+            if (king instanceof King && rook instanceof Rook && king.getColor() == rook.getColor()) {
+                king.setMoveCount(0);
+                rook.setMoveCount(0);
+            }
+        }
+    }
+
+    private static int skipSpace(String fen, int i) {
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int nextSpace(String fen, int i) {
+        while (i < fen.length() && fen.charAt(i) != ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int parseNumber(String fen, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = fen.charAt(i);
+            if (c < '0' || c > '9' || value > 100_000) {
+                throw invalidFen(fen);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static ChessException invalidFen(String fen) {
+        return new ChessException("Invalid FEN: " + fen);
+    }
+
+    private ChessPiece copyPiece(ChessPiece piece) {
+        ChessPiece copy = switch (piece.getType()) {
+            case PAWN -> new Pawn(this, board, piece.getColor());
+            case KNIGHT -> new Knight(board, piece.getColor());
+            case BISHOP -> new Bishop(board, piece.getColor());
+            case ROOK -> new Rook(board, piece.getColor());
+            case QUEEN -> new Queen(board, piece.getColor());
+            case KING -> new King(board, piece.getColor());
+        };
+        copy.setMoveCount(piece.getMoveCount());
+        return copy;
+    }
+
     private void placeNewPiece(char column, int row, ChessPiece piece) {
-        board.placePiece(piece, new ChessPosition(column, row).toPosition());
-        piecesOnBoard.add(piece);
+        placeNewPiece(piece, ChessBoard.square(new ChessPosition(column, row).toPosition()));
+    }
+
+    private void placeNewPiece(ChessPiece piece, int square) {
+        board.placePiece(piece, ChessBoard.sharedPosition(square));
+        piecesOnBoard[piece.getColor().ordinal()].add(piece);
+        if (piece instanceof King) {
+            kingSquares[piece.getColor().ordinal()] = square;
+        }
+    }
+
+    public int getKingSquare(Color color) {
+        return kingSquares[color.ordinal()];
     }
 
     private Color opponent(Color color) {
@@ -112,36 +481,367 @@ public class ChessMatch {
         return board.piece(position).possibleMoves();
     }
 
+    public void generateMoves(MoveList moves) {
+        generateMoves(currentPlayer, moves);
+    }
+
+    private void generateMoves(Color color, MoveList moves) {
+        moves.clear();
+        long pieces = board.pieces(color);
+        while (pieces != 0) {
+            board.pieceAt(Long.numberOfTrailingZeros(pieces)).generateMoves(moves);
+            pieces &= pieces - 1;
+        }
+    }
+
+    public MoveList legalMoves() {
+        MoveList moves = new MoveList();
+        legalMoves(moves);
+        return moves;
+    }
+
+    public void legalMoves(MoveList moves) {
+        if (legalMovesCached) {
+            moves.copyFrom(legalMoveList);
+        } else {
+            generateLegalMoves(currentPlayer, moves, ALL_MOVES);
+        }
+    }
+
+    //captures, including en passant
+    public void legalCaptures(MoveList moves) {
+        generateLegalMoves(currentPlayer, moves, CAPTURES);
+    }
+
+    //everything legalCaptures leaves out: pushes, castling and other moves to empty squares
+    public void legalQuietMoves(MoveList moves) {
+        generateLegalMoves(currentPlayer, moves, QUIET_MOVES);
+    }
+
+    public boolean isPseudoLegal(int move) {
+        ChessPiece piece = board.pieceAt(Move.from(move));
+        if (piece == null || piece.getColor() != currentPlayer || (piece.moves() & (1L << Move.to(move))) == 0) {
+            return false;
+        }
+        return Move.encode(Move.from(move), Move.to(move), piece.moveFlags(Move.from(move), Move.to(move))) == move;
+    }
+
+    private void generateLegalMoves(Color color, MoveList moves) {
+        generateLegalMoves(color, moves, ALL_MOVES);
+    }
+
+    private void generateLegalMoves(Color color, MoveList moves, int kind) {
+        moves.clear();
+        Color opponent = opponent(color);
+        long occupied = board.occupied();
+        long own = board.pieces(color);
+        long filter = kind == CAPTURES ? board.pieces(opponent) : kind == QUIET_MOVES ? ~occupied : -1L;
+        int kingSquare = kingSquares[color.ordinal()];
+        long checkers = board.attackers(kingSquare, opponent, occupied);
+
+        //king moves are tested with the king lifted off the board so it can't hide behind itself
+        ChessPiece king = board.pieceAt(kingSquare);
+        long kingTargets = king.moves() & filter;
+        long safeTargets = 0L;
+        while (kingTargets != 0) {
+            int target = Long.numberOfTrailingZeros(kingTargets);
+            if (!board.isSquareAttacked(target, opponent, occupied ^ (1L << kingSquare))) {
+                safeTargets |= 1L << target;
+            }
+            kingTargets &= kingTargets - 1;
+        }
+        king.generateMoves(moves, safeTargets);
+
+        //in double check only the king can move
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+        long evasions = filter;
+        if (checkers != 0) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            evasions &= checkers | Attacks.between(kingSquare, checker);
+        }
+
+        long pinned = 0L;
+        long queens = board.pieces(opponent, PieceType.QUEEN);
+        long snipers = (Attacks.rookAttacks(kingSquare, 0L) & (board.pieces(opponent, PieceType.ROOK) | queens))
+                | (Attacks.bishopAttacks(kingSquare, 0L) & (board.pieces(opponent, PieceType.BISHOP) | queens));
+        while (snipers != 0) {
+            long blockers = Attacks.between(kingSquare, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+            snipers &= snipers - 1;
+        }
+
+        int enPassantTarget = -1;
+        if (enPassant != null && enPassant.getColor() == opponent && enPassant.getSquare() >= 0) {
+            enPassantTarget = color == Color.WHITE ? enPassant.getSquare() - 8 : enPassant.getSquare() + 8;
+        }
+
+        long pieces = own & ~(1L << kingSquare);
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            ChessPiece piece = board.pieceAt(square);
+            long targets = evasions;
+            if ((pinned & (1L << square)) != 0) {
+                targets &= Attacks.line(kingSquare, square);
+            }
+            //special move En passant, checked by replaying it on the occupancy bits
+            if (enPassantTarget >= 0 && piece instanceof Pawn
+                    && (Attacks.pawnAttacks(color, square) & (1L << enPassantTarget)) != 0) {
+                long captured = 1L << enPassant.getSquare();
+                long after = (occupied ^ (1L << square) ^ captured) | (1L << enPassantTarget);
+                if (kind != QUIET_MOVES && (board.attackers(kingSquare, opponent, after) & ~captured) == 0) {
+                    targets |= 1L << enPassantTarget;
+                } else {
+                    targets &= ~(1L << enPassantTarget);
+                }
+            }
+            piece.generateMoves(moves, targets);
+        }
+    }
+
     public ChessPiece performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition) {
+        if (result.isOver()) {
+            throw new ChessException("The game is over: " + result);
+        }
         Position source = sourcePosition.toPosition();
         Position target = targetPosition.toPosition();
         validateOrigin(source);
         validateTarget(source, target);
-        Piece capturedPiece = makeMove(source, target);
+        generateLegalMoves(currentPlayer, legalMoveList);
+        legalMovesCached = true;
+        int move = legalMoveList.find(ChessBoard.square(source), ChessBoard.square(target));
+        if (move == Move.NONE) {
+            throw new ChessException("You can't put yourself in check");
+        }
+        redoCount = 0;
+        Piece capturedPiece = play(move);
+        snapshot = PositionSnapshot.of(this, move);
+        return (ChessPiece) capturedPiece;
+    }
 
+    //plays a move code, e.g. from legalMoves(), updating everything performChessMove does: the result and the snapshot.
+    //Unlike performChessMove it keeps going after a draw by rule, as recorded games often play on past a repetition
+    public void playMove(int move) {
+        if (result == GameResult.CHECKMATE || result == GameResult.STALEMATE) {
+            throw new ChessException("The game is over: " + result);
+        }
+        if (!isPseudoLegal(move)) {
+            throw new ChessException("Illegal move: " + Move.toString(move));
+        }
+        redoCount = 0;
+        play(move);
+        snapshot = PositionSnapshot.of(this, move);
+    }
+
+    //takes back the last move, restoring the position exactly; the move stays available to redo()
+    public void undo() {
+        if (ply == 0) {
+            throw new ChessException("There is no move to take back");
+        }
+        if (redoCount == redoMoves.length) {
+            redoMoves = Arrays.copyOf(redoMoves, redoCount * 2);
+        }
+        redoMoves[redoCount++] = historyMoves[ply - 1];
+        takeBack();
+        snapshot = PositionSnapshot.of(this, ply > 0 ? historyMoves[ply - 1] : Move.NONE);
+    }
+
+    public void redo() {
+        if (redoCount == 0) {
+            throw new ChessException("There is no move to redo");
+        }
+        int move = redoMoves[redoCount - 1];
+        if (move == Move.NONE) {
+            makeNullMove();
+        } else {
+            play(move);
+        }
+        redoCount--;
+        snapshot = PositionSnapshot.of(this, move);
+    }
+
+    public boolean canUndo() {
+        return ply > 0;
+    }
+
+    public boolean canRedo() {
+        return redoCount > 0;
+    }
+
+    //a legal move with everything performChessMove updates, including the game result
+    private Piece play(int move) {
+        push(move);
+        Position source = ChessBoard.sharedPosition(Move.from(move));
+        Position target = ChessBoard.sharedPosition(Move.to(move));
+        Piece capturedPiece = makeMove(source, target);
+        historyCaptured[ply - 1] = capturedPiece;
         if (testCheck(currentPlayer)) {
-            undoMove(source, target, capturedPiece);
+            takeBack();
             throw new ChessException("You can't put yourself in check");
         }
 
         ChessPiece movedPiece = (ChessPiece) board.piece(target);
+        halfmoveClock = movedPiece instanceof Pawn || capturedPiece != null ? 0 : halfmoveClock + 1;
+        setEnPassant(Move.flags(move) == Move.DOUBLE_PAWN_PUSH ? movedPiece : null);
+
         check = testCheck(opponent(currentPlayer));
+        //the turn passes even on mate, so the current player is always the side to move and the mated side has no moves
+        nextTurn();
+        generateLegalMoves(currentPlayer, legalMoveList);
+        legalMovesCached = true;
+        updateResult();
+        return capturedPiece;
+    }
 
-        if (testCheckmate(opponent(currentPlayer))) {
-            checkmate = true;
+    //expects legalMoveList to hold the legal moves of the side to move
+    private void updateResult() {
+        if (legalMoveList.isEmpty()) {
+            result = check ? GameResult.CHECKMATE : GameResult.STALEMATE;
+        } else if (halfmoveClock >= FIFTY_MOVE_PLIES) {
+            result = GameResult.FIFTY_MOVE_RULE;
+        } else if (repetitions() >= 2) {
+            result = GameResult.THREEFOLD_REPETITION;
+        } else if (insufficientMaterial()) {
+            result = GameResult.INSUFFICIENT_MATERIAL;
+        } else {
+            result = GameResult.IN_PROGRESS;
         }
-        else {
-            nextTurn();
+    }
+
+    //earlier occurrences of the current position; only positions since the last capture or pawn move can repeat,
+    //and none from before a null move, which the side to move never really played
+    public int repetitions() {
+        long key = getZobristKey();
+        int count = 0;
+        int oldest = Math.max(ply - halfmoveClock, 0);
+        for (int i = ply - 2; i >= oldest; i -= 2) {
+            if (historyMoves[i + 1] == Move.NONE || historyMoves[i] == Move.NONE) {
+                break;
+            }
+            if (historyKeys[i] == key) {
+                count++;
+            }
         }
+        return count;
+    }
 
-        // special move En passant
-        if (movedPiece instanceof Pawn && (target.getRow() == source.getRow() - 2 || target.getRow() == source.getRow() + 2 )) {
-            enPassant = movedPiece;
-        } else {
-            enPassant = null;
+    //neither side can mate: bare kings, a single minor piece, or bishops all on one square colour
+    private boolean insufficientMaterial() {
+        long heavy = 0;
+        long knights = 0;
+        long bishops = 0;
+        for (Color color : Color.values()) {
+            heavy |= board.pieces(color, PieceType.PAWN) | board.pieces(color, PieceType.ROOK) | board.pieces(color, PieceType.QUEEN);
+            knights |= board.pieces(color, PieceType.KNIGHT);
+            bishops |= board.pieces(color, PieceType.BISHOP);
         }
+        if (heavy != 0) {
+            return false;
+        }
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+        return knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0);
+    }
 
-        return (ChessPiece) capturedPiece;
+    //makes a pseudo-legal move for the search; returns false and leaves the position unchanged if it is illegal.
+    //The game result and the snapshot are not updated, so anything outside a search should use playMove
+    public boolean makeMove(int move) {
+        push(move);
+        Piece capturedPiece = makeMove(ChessBoard.sharedPosition(Move.from(move)), ChessBoard.sharedPosition(Move.to(move)));
+        historyCaptured[ply - 1] = capturedPiece;
+
+        if (testCheck(currentPlayer)) {
+            takeBack();
+            return false;
+        }
+
+        nextTurn();
+        halfmoveClock = board.pieceAt(Move.to(move)) instanceof Pawn || capturedPiece != null ? 0 : halfmoveClock + 1;
+        setEnPassant(Move.flags(move) == Move.DOUBLE_PAWN_PUSH ? board.pieceAt(Move.to(move)) : null);
+        check = testCheck(currentPlayer);
+        return true;
+    }
+
+    //takes back the last move; it must be the given one, so an unbalanced make and undo fails here instead of
+    //quietly corrupting the search
+    public void undoMove(int move) {
+        expectLastMove(move);
+        takeBack();
+    }
+
+    //passes the turn without moving, used by null-move pruning
+    public void makeNullMove() {
+        push(Move.NONE);
+        setEnPassant(null);
+        nextTurn();
+        stateKey ^= Zobrist.side();
+        check = false;
+    }
+
+    public void undoNullMove() {
+        expectLastMove(Move.NONE);
+        takeBack();
+    }
+
+    private void expectLastMove(int move) {
+        if (ply == 0 || historyMoves[ply - 1] != move) {
+            throw new ChessException("Can't undo " + moveName(move) + ", the last move was "
+                    + (ply == 0 ? "none" : moveName(historyMoves[ply - 1])));
+        }
+    }
+
+    private static String moveName(int move) {
+        return move == Move.NONE ? "a null move" : Move.toString(move);
+    }
+
+    //records the state the next move can't be reversed from
+    private void push(int move) {
+        legalMovesCached = false;
+        if (ply == historyMoves.length) {
+            int capacity = ply * 2;
+            historyMoves = Arrays.copyOf(historyMoves, capacity);
+            historyStates = Arrays.copyOf(historyStates, capacity);
+            historyKeys = Arrays.copyOf(historyKeys, capacity);
+            historyCaptured = Arrays.copyOf(historyCaptured, capacity);
+        }
+        long state = (enPassant != null ? enPassant.getSquare() + 1 : 0)
+                | (long) castlingRights << CASTLING_SHIFT
+                | (check ? CHECK : 0)
+                | (long) result.ordinal() << RESULT_SHIFT
+                | (currentPlayer == Color.BLACK ? BLACK_TO_MOVE : 0)
+                | (long) halfmoveClock << HALFMOVE_SHIFT
+                | (long) turn << TURN_SHIFT;
+        historyMoves[ply] = move;
+        historyStates[ply] = state;
+        historyKeys[ply] = getZobristKey();
+        historyCaptured[ply] = null;
+        ply++;
+    }
+
+    private void takeBack() {
+        legalMovesCached = false;
+        ply--;
+        int move = historyMoves[ply];
+        long state = historyStates[ply];
+        if (move != Move.NONE) {
+            undoMove(ChessBoard.sharedPosition(Move.from(move)), ChessBoard.sharedPosition(Move.to(move)),
+                    historyCaptured[ply], Move.flags(move) == Move.EN_PASSANT);
+        }
+        int enPassantSquare = (int) (state & ((1 << EN_PASSANT_BITS) - 1)) - 1;
+        enPassant = enPassantSquare >= 0 ? board.pieceAt(enPassantSquare) : null;
+        enPassantColumn = enPassantSquare >= 0 ? ChessBoard.column(enPassantSquare) : -1;
+        castlingRights = (int) (state >>> CASTLING_SHIFT) & 0xF;
+        check = (state & CHECK) != 0;
+        result = RESULTS[(int) (state >>> RESULT_SHIFT) & 0x7];
+        currentPlayer = (state & BLACK_TO_MOVE) != 0 ? Color.BLACK : Color.WHITE;
+        halfmoveClock = (int) (state >>> HALFMOVE_SHIFT) & 0xFFFFF;
+        turn = (int) (state >>> TURN_SHIFT);
+        stateKey = historyKeys[ply] ^ board.key();
     }
 
     private void validateOrigin(Position origin) {
@@ -162,27 +862,68 @@ public class ChessMatch {
         }
     }
 
+    private void setEnPassant(ChessPiece pawn) {
+        //the previous pawn may have been captured since, so its file is remembered
+        if (enPassantColumn >= 0) {
+            stateKey ^= Zobrist.enPassant(enPassantColumn);
+        }
+        enPassant = pawn;
+        enPassantColumn = pawn != null ? ChessBoard.column(pawn.getSquare()) : -1;
+        if (enPassantColumn >= 0) {
+            stateKey ^= Zobrist.enPassant(enPassantColumn);
+        }
+    }
+
+    private int castlingRights() {
+        int rights = 0;
+        if (testCastlingPiece(60, King.class, Color.WHITE)) {
+            rights |= testCastlingPiece(63, Rook.class, Color.WHITE) ? WHITE_KINGSIDE : 0;
+            rights |= testCastlingPiece(56, Rook.class, Color.WHITE) ? WHITE_QUEENSIDE : 0;
+        }
+        if (testCastlingPiece(4, King.class, Color.BLACK)) {
+            rights |= testCastlingPiece(7, Rook.class, Color.BLACK) ? BLACK_KINGSIDE : 0;
+            rights |= testCastlingPiece(0, Rook.class, Color.BLACK) ? BLACK_QUEENSIDE : 0;
+        }
+        return rights;
+    }
+
+    private boolean testCastlingPiece(int square, Class<? extends ChessPiece> type, Color color) {
+        ChessPiece piece = board.pieceAt(square);
+        return type.isInstance(piece) && piece.getColor() == color && piece.getMoveCount() == 0;
+    }
+
+    private void updateCastlingRights(ChessPiece piece, Piece capturedPiece) {
+        if (piece instanceof King || piece instanceof Rook || capturedPiece instanceof Rook) {
+            int rights = castlingRights();
+            stateKey ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+            castlingRights = rights;
+        }
+    }
+
     private Piece makeMove(Position origin, Position destination) {
         ChessPiece piece = (ChessPiece) board.removePiece(origin);
         piece.increaseMoveCount();
         Piece capturedPiece = board.removePiece(destination);
         board.placePiece(piece, destination);
+        if (piece instanceof King) {
+            kingSquares[piece.getColor().ordinal()] = ChessBoard.square(destination);
+        }
         if (capturedPiece != null) {
-            piecesOnBoard.remove(capturedPiece);
+            piecesOnBoard[opponent(piece.getColor()).ordinal()].remove((ChessPiece) capturedPiece);
             captured.add(capturedPiece);
         }
         //special move Castling kings side
         if (piece instanceof King && destination.getColumn() == origin.getColumn() + 2) {
-            Position originRook = new Position(origin.getRow(), origin.getColumn() + 3);
-            Position destinationRook = new Position(origin.getRow(), origin.getColumn() + 1);
+            Position originRook = ChessBoard.sharedPosition(ChessBoard.square(origin) + 3);
+            Position destinationRook = ChessBoard.sharedPosition(ChessBoard.square(origin) + 1);
             ChessPiece rook = (ChessPiece) board.removePiece(originRook);
             board.placePiece(rook, destinationRook);
             rook.increaseMoveCount();
         }
         //special move Castling queens side
         if (piece instanceof King && destination.getColumn() == origin.getColumn() - 2) {
-            Position originRook = new Position(origin.getRow(), origin.getColumn() - 4);
-            Position destinationRook = new Position(origin.getRow(), origin.getColumn() - 1);
+            Position originRook = ChessBoard.sharedPosition(ChessBoard.square(origin) - 4);
+            Position destinationRook = ChessBoard.sharedPosition(ChessBoard.square(origin) - 1);
             ChessPiece rook = (ChessPiece) board.removePiece(originRook);
             board.placePiece(rook, destinationRook);
             rook.increaseMoveCount();
@@ -193,41 +934,49 @@ public class ChessMatch {
             if (origin.getColumn() != destination.getColumn() && capturedPiece == null) {
                 Position pawnPosition;
                 if (piece.getColor() == Color.WHITE) {
-                    pawnPosition = new Position(destination.getRow() + 1, destination.getColumn());
+                    pawnPosition = ChessBoard.sharedPosition(ChessBoard.square(destination) + 8);
                 } else {
-                    pawnPosition = new Position(destination.getRow() - 1, destination.getColumn());
+                    pawnPosition = ChessBoard.sharedPosition(ChessBoard.square(destination) - 8);
                 }
                 capturedPiece = board.removePiece(pawnPosition);
                 captured.add(capturedPiece);
-                piecesOnBoard.remove(capturedPiece);
+                piecesOnBoard[opponent(piece.getColor()).ordinal()].remove((ChessPiece) capturedPiece);
             }
         }
 
+        updateCastlingRights(piece, capturedPiece);
+        stateKey ^= Zobrist.side();
+
         return capturedPiece;
     }
 
-    private void undoMove(Position origin, Position destination, Piece capturedPiece) {
+    //puts the pieces back; the caller restores the rest of the state
+    private void undoMove(Position origin, Position destination, Piece capturedPiece, boolean enPassantCapture) {
         ChessPiece piece = (ChessPiece) board.removePiece(destination);
         piece.decreaseMoveCount();
         board.placePiece(piece, origin);
+        if (piece instanceof King) {
+            kingSquares[piece.getColor().ordinal()] = ChessBoard.square(origin);
+        }
         if (capturedPiece != null) {
             board.placePiece(capturedPiece, destination);
-            captured.remove(capturedPiece);
-            piecesOnBoard.add(capturedPiece);
+            //captures are taken back in reverse order, so this is always the last one
+            captured.remove(captured.size() - 1);
+            piecesOnBoard[opponent(piece.getColor()).ordinal()].add((ChessPiece) capturedPiece);
         }
 
         //special move Castling kings side
         if (piece instanceof King && destination.getColumn() == origin.getColumn() + 2) {
-            Position originRook = new Position(origin.getRow(), origin.getColumn() + 3);
-            Position destinationRook = new Position(origin.getRow(), origin.getColumn() + 1);
+            Position originRook = ChessBoard.sharedPosition(ChessBoard.square(origin) + 3);
+            Position destinationRook = ChessBoard.sharedPosition(ChessBoard.square(origin) + 1);
             ChessPiece rook = (ChessPiece) board.removePiece(destinationRook);
             board.placePiece(rook, originRook);
             rook.decreaseMoveCount();
         }
         //special move Castling queens side
         if (piece instanceof King && destination.getColumn() == origin.getColumn() - 2) {
-            Position originRook = new Position(origin.getRow(), origin.getColumn() - 4);
-            Position destinationRook = new Position(origin.getRow(), origin.getColumn() - 1);
+            Position originRook = ChessBoard.sharedPosition(ChessBoard.square(origin) - 4);
+            Position destinationRook = ChessBoard.sharedPosition(ChessBoard.square(origin) - 1);
             ChessPiece rook = (ChessPiece) board.removePiece(destinationRook);
             board.placePiece(rook, originRook);
             rook.decreaseMoveCount();
@@ -235,66 +984,30 @@ public class ChessMatch {
 
         //special move En passant
         if (piece instanceof Pawn) {
-            if (origin.getColumn() != destination.getColumn() && capturedPiece == enPassant) {
+            if (enPassantCapture) {
                 ChessPiece pawn = (ChessPiece) board.removePiece(destination);
                 Position pawnPosition;
                 if (piece.getColor() == Color.WHITE) {
-                    pawnPosition = new Position(3, destination.getColumn());
+                    pawnPosition = ChessBoard.sharedPosition(ChessBoard.square(3, destination.getColumn()));
                 } else {
-                    pawnPosition = new Position(4, destination.getColumn());
+                    pawnPosition = ChessBoard.sharedPosition(ChessBoard.square(4, destination.getColumn()));
                 }
                 board.placePiece(pawn, pawnPosition);
             }
         }
     }
 
-    private boolean testCheck(Color color) {
-        Position kingPosition = king(color).getChessPosition().toPosition();
-        List<Piece> opponentPieces = piecesOnBoard.stream().filter(p -> ((ChessPiece)p).getColor() == opponent(color)).toList();
-
-        for (Piece p : opponentPieces) {
-            boolean[][] aux = p.possibleMoves();
-            if (aux[kingPosition.getRow()][kingPosition.getColumn()]) {
-                return true;
-            }
-        }
-
-        return false;
+    boolean testCheck(Color color) {
+        return board.isSquareAttacked(kingSquares[color.ordinal()], opponent(color));
     }
 
-    private boolean testCheckmate(Color color) {
+    boolean testCheckmate(Color color) {
         if (!testCheck(color)) {
             return false;
         }
-        List<Piece> list = piecesOnBoard.stream().filter(x -> ((ChessPiece)x).getColor() == color).toList();
-        for (Piece p : list) {
-            boolean[][] mat = p.possibleMoves();
-            for (int i=0; i<board.getRows(); i++) {
-                for (int j=0; j<board.getColumns(); j++) {
-                    if (mat[i][j]) {
-                        Position source = ((ChessPiece)p).getChessPosition().toPosition();
-                        Position target = new Position(i, j);
-                        Piece capturedPiece = makeMove(source, target);
-                        boolean testCheck = testCheck(color);
-                        undoMove(source, target, capturedPiece);
-                        if (!testCheck) {
-                            return false;
-                        }
-                    }
-                }
-            }
-        }
-        return true;
-    }
-
-    private ChessPiece king(Color color) {
-        List<Piece> aux = piecesOnBoard.stream().filter(p -> ((ChessPiece)p).getColor() == color).toList();
-        for (Piece p : aux) {
-            if (p instanceof King) {
-                return (ChessPiece) p;
-            }
-        }
-        throw new IllegalStateException("There is no " + color + " king on the board");
+        generateLegalMoves(color, legalMoveList);
+        legalMovesCached = color == currentPlayer;
+        return legalMoveList.isEmpty();
     }
 
     private void nextTurn() {
@@ -1,15 +1,17 @@
 package chess;
 
-import boardgame.Board;
 import boardgame.Piece;
 import boardgame.Position;
 
 public abstract class ChessPiece extends Piece {
+    private final ChessBoard board;
     private final Color color;
     private int moveCount;
+    private int listIndex = -1;
 
-    public ChessPiece(Board board, Color color) {
+    public ChessPiece(ChessBoard board, Color color) {
         super(board);
+        this.board = board;
         this.color = color;
     }
 
@@ -29,10 +31,85 @@ public abstract class ChessPiece extends Piece {
         moveCount--;
     }
 
+    void setMoveCount(int moveCount) {
+        this.moveCount = moveCount;
+    }
+
+    int getListIndex() {
+        return listIndex;
+    }
+
+    void setListIndex(int listIndex) {
+        this.listIndex = listIndex;
+    }
+
     public ChessPosition getChessPosition() {
         return ChessPosition.fromPosition(position);
     }
 
+    public int getSquare() {
+        return position == null ? -1 : ChessBoard.square(position);
+    }
+
+    public abstract PieceType getType();
+
+    public abstract long moves();
+
+    public void generateMoves(MoveList moveList) {
+        generateMoves(moveList, -1L);
+    }
+
+    public void generateMoves(MoveList moveList, long targets) {
+        int from = getSquare();
+        long moves = moves() & targets;
+
+        while (moves != 0) {
+            int to = Long.numberOfTrailingZeros(moves);
+            moveList.add(Move.encode(from, to, moveFlags(from, to)));
+            moves &= moves - 1;
+        }
+    }
+
+    protected int moveFlags(int from, int to) {
+        return board.pieceAt(to) != null ? Move.CAPTURE : Move.QUIET;
+    }
+
+    @Override
+    public boolean[][] possibleMoves() {
+        boolean[][] possibleMoves = new boolean[board.getRows()][board.getColumns()];
+        long moves = moves();
+
+        while (moves != 0) {
+            int square = Long.numberOfTrailingZeros(moves);
+            possibleMoves[ChessBoard.row(square)][ChessBoard.column(square)] = true;
+            moves &= moves - 1;
+        }
+
+        return possibleMoves;
+    }
+
+    @Override
+    public boolean possibleMove(Position position) {
+        return (moves() & (1L << ChessBoard.square(position))) != 0;
+    }
+
+    @Override
+    public boolean isThereAnyPossibleMove() {
+        return moves() != 0;
+    }
+
+    protected ChessBoard getChessBoard() {
+        return board;
+    }
+
+    protected long friendlyPieces() {
+        return board.pieces(color);
+    }
+
+    protected long opponentPieces() {
+        return board.occupied() & ~board.pieces(color);
+    }
+
     protected boolean isThereOpponentPiece(Position position) {
         ChessPiece chessPiece = (ChessPiece) getBoard().piece(position);
 
@@ -0,0 +1,18 @@
+package chess;
+
+public enum GameResult {
+    IN_PROGRESS,
+    CHECKMATE,
+    STALEMATE,
+    THREEFOLD_REPETITION,
+    FIFTY_MOVE_RULE,
+    INSUFFICIENT_MATERIAL;
+
+    public boolean isOver() {
+        return this != IN_PROGRESS;
+    }
+
+    public boolean isDraw() {
+        return this != IN_PROGRESS && this != CHECKMATE;
+    }
+}
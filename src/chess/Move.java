@@ -0,0 +1,49 @@
+package chess;
+
+public final class Move {
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+
+    private Move() {
+    }
+
+    //bits 0-5 source square, bits 6-11 target square, bits 12-15 flags
+    public static int encode(int from, int to, int flags) {
+        return from | to << 6 | flags << 12;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return move >>> 6 & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return move >>> 12 & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    public static String toString(int move) {
+        return squareName(from(move)) + squareName(to(move));
+    }
+
+    private static String squareName(int square) {
+        return "" + (char) ('a' + ChessBoard.column(square)) + (ChessBoard.SIZE - ChessBoard.row(square));
+    }
+}
@@ -0,0 +1,55 @@
+package chess;
+
+public class MoveList {
+    public static final int MAX_MOVES = 256;
+
+    private final int[] moves = new int[MAX_MOVES];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int find(int from, int to) {
+        for (int i = 0; i < size; i++) {
+            if (Move.from(moves[i]) == from && Move.to(moves[i]) == to) {
+                return moves[i];
+            }
+        }
+        return Move.NONE;
+    }
+
+    public void copyFrom(MoveList other) {
+        System.arraycopy(other.moves, 0, moves, 0, other.size);
+        size = other.size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,67 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public final class Perft {
+
+    private Perft() {
+    }
+
+    public static long perft(ChessMatch chessMatch, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList[] moveLists = new MoveList[depth + 1];
+        for (int i = 1; i <= depth; i++) {
+            moveLists[i] = new MoveList();
+        }
+        return perft(chessMatch, depth, moveLists);
+    }
+
+    private static long perft(ChessMatch chessMatch, int depth, MoveList[] moveLists) {
+        MoveList moves = moveLists[depth];
+        chessMatch.legalMoves(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            chessMatch.makeMove(move);
+            nodes += perft(chessMatch, depth - 1, moveLists);
+            chessMatch.undoMove(move);
+        }
+
+        return nodes;
+    }
+
+    public static Map<String, Long> divide(ChessMatch chessMatch, int depth, ForkJoinPool pool) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide depth must be at least 1");
+        }
+        MoveList rootMoves = chessMatch.legalMoves();
+        List<String> names = new ArrayList<>();
+        List<ForkJoinTask<Long>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            //every task gets its own copy, so no two threads touch the same board
+            ChessMatch copy = new ChessMatch(chessMatch);
+            copy.makeMove(move);
+            names.add(Move.toString(move));
+            tasks.add(pool.submit(() -> perft(copy, depth - 1)));
+        }
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            result.put(names.get(i), tasks.get(i).join());
+        }
+        return result;
+    }
+}
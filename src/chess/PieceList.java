@@ -0,0 +1,34 @@
+package chess;
+
+import java.util.Arrays;
+
+public class PieceList {
+    private ChessPiece[] pieces = new ChessPiece[16];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public ChessPiece get(int index) {
+        return pieces[index];
+    }
+
+    public void add(ChessPiece piece) {
+        if (size == pieces.length) {
+            pieces = Arrays.copyOf(pieces, size * 2);
+        }
+        piece.setListIndex(size);
+        pieces[size++] = piece;
+    }
+
+    //the last piece takes the freed slot, so removal never shifts the array
+    public void remove(ChessPiece piece) {
+        int index = piece.getListIndex();
+        ChessPiece last = pieces[--size];
+        pieces[index] = last;
+        last.setListIndex(index);
+        pieces[size] = null;
+        piece.setListIndex(-1);
+    }
+}
@@ -0,0 +1,98 @@
+package chess;
+
+//an immutable copy of a match's position, safe to hand to any number of reader threads
+public final class PositionSnapshot {
+    public static final int EMPTY = 0;
+    //piece codes are the piece type's ordinal plus one, offset by 6 for black
+    public static final int BLACK_OFFSET = 6;
+    private static final String PIECE_LETTERS = ".PNBRQKpnbrqk";
+
+    private final byte[] pieces;
+    private final int turn;
+    private final Color currentPlayer;
+    private final boolean check;
+    private final GameResult result;
+    private final int lastMove;
+    //built on first use; racing readers at worst build equal strings
+    private String text;
+
+    private PositionSnapshot(byte[] pieces, int turn, Color currentPlayer, boolean check, GameResult result,
+                             int lastMove) {
+        this.pieces = pieces;
+        this.turn = turn;
+        this.currentPlayer = currentPlayer;
+        this.check = check;
+        this.result = result;
+        this.lastMove = lastMove;
+    }
+
+    static PositionSnapshot of(ChessMatch chessMatch, int lastMove) {
+        ChessBoard board = chessMatch.getBoard();
+        byte[] pieces = new byte[ChessBoard.SQUARES];
+        long occupied = board.occupied();
+        while (occupied != 0) {
+            int square = Long.numberOfTrailingZeros(occupied);
+            pieces[square] = (byte) code(board.pieceAt(square));
+            occupied &= occupied - 1;
+        }
+        return new PositionSnapshot(pieces, chessMatch.getTurn(), chessMatch.getCurrentPlayer(), chessMatch.getCheck(),
+                chessMatch.getResult(), lastMove);
+    }
+
+    public static int code(ChessPiece piece) {
+        return piece.getType().ordinal() + 1 + (piece.getColor() == Color.BLACK ? BLACK_OFFSET : 0);
+    }
+
+    //the piece code on a square, EMPTY if there is none
+    public int pieceAt(int square) {
+        return pieces[square];
+    }
+
+    public int getTurn() {
+        return turn;
+    }
+
+    public Color getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public boolean getCheck() {
+        return check;
+    }
+
+    public boolean getCheckmate() {
+        return result == GameResult.CHECKMATE;
+    }
+
+    public boolean getStalemate() {
+        return result == GameResult.STALEMATE;
+    }
+
+    public GameResult getResult() {
+        return result;
+    }
+
+    //Move.NONE before the first move
+    public int getLastMove() {
+        return lastMove;
+    }
+
+    //64 piece letters from a8 to h1, then turn, side to move, result or check and last move
+    @Override
+    public String toString() {
+        String result = text;
+        if (result == null) {
+            StringBuilder sb = new StringBuilder(ChessBoard.SQUARES + 24);
+            for (byte piece : pieces) {
+                sb.append(PIECE_LETTERS.charAt(piece));
+            }
+            sb.append(' ').append(turn);
+            sb.append(' ').append(currentPlayer == Color.WHITE ? 'w' : 'b');
+            sb.append(' ').append(this.result.isOver() ? this.result.name().toLowerCase() : check ? "check" : "-");
+            sb.append(' ').append(lastMove == Move.NONE ? "-" : Move.toString(lastMove));
+            result = sb.toString();
+            text = result;
+        }
+        return result;
+    }
+}
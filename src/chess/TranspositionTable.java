@@ -0,0 +1,156 @@
+package chess;
+
+import chess.exceptions.ChessException;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TranspositionTable {
+    public static final int UPPER_BOUND = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int EXACT = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_SIZE = 4;
+    private static final int MAX_AGE = 63;
+
+    //keys[i] holds key ^ data[i], so a torn write from a racing thread fails verification
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private volatile int age;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    public TranspositionTable(int sizeMb) {
+        if (sizeMb < 1) {
+            throw new ChessException("Transposition table size must be at least 1 MB");
+        }
+        long entries = Long.highestOneBit((long) sizeMb * 1024 * 1024 / ENTRY_BYTES);
+        entries = Math.min(entries, 1L << 30);
+        this.keys = new long[(int) entries];
+        this.data = new long[(int) entries];
+        this.bucketMask = (int) (entries / BUCKET_SIZE) - 1;
+    }
+
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    public void newSearch() {
+        age = (age + 1) & MAX_AGE;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        age = 0;
+        hits.reset();
+        misses.reset();
+        collisions.reset();
+    }
+
+    public long probe(long key) {
+        int first = bucket(key);
+        for (int i = first; i < first + BUCKET_SIZE; i++) {
+            long entry = data[i];
+            if (entry != 0 && (keys[i] ^ entry) == key) {
+                hits.increment();
+                return entry;
+            }
+        }
+        misses.increment();
+        return 0L;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int first = bucket(key);
+        int currentAge = age;
+        int replace = first;
+        int worst = Integer.MAX_VALUE;
+
+        for (int i = first; i < first + BUCKET_SIZE; i++) {
+            long entry = data[i];
+            if (entry == 0 || (keys[i] ^ entry) == key) {
+                //keep the old best move when the new result has none
+                if (move == Move.NONE && entry != 0) {
+                    move = move(entry);
+                }
+                replace = i;
+                worst = Integer.MIN_VALUE;
+                break;
+            }
+            //prefer replacing shallow entries left over from older searches
+            int relativeAge = (currentAge - age(entry)) & MAX_AGE;
+            int value = depth(entry) - 8 * relativeAge;
+            if (value < worst) {
+                worst = value;
+                replace = i;
+            }
+        }
+
+        if (worst != Integer.MIN_VALUE) {
+            collisions.increment();
+        }
+        long entry = pack(move, score, depth, bound, currentAge);
+        data[replace] = entry;
+        keys[replace] = key ^ entry;
+    }
+
+    public int hashfull() {
+        int used = 0;
+        int sample = Math.min(1000, data.length);
+        for (int i = 0; i < sample; i++) {
+            if (data[i] != 0 && age(data[i]) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 32 & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 40 & 0x3);
+    }
+
+    private static int age(long entry) {
+        return (int) (entry >>> 42 & MAX_AGE);
+    }
+
+    private static long pack(int move, int score, int depth, int bound, int age) {
+        return (move & 0xFFFFL)
+                | (score & 0xFFFFL) << 16
+                | (long) Math.max(0, Math.min(depth, 0xFF)) << 32
+                | (long) bound << 40
+                | (long) age << 42;
+    }
+
+    private int bucket(long key) {
+        return ((int) (key ^ key >>> 32) & bucketMask) * BUCKET_SIZE;
+    }
+}
@@ -0,0 +1,46 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+public final class Zobrist {
+    private static final long[][] PIECES = new long[12][ChessBoard.SQUARES];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT = new long[ChessBoard.SIZE];
+    private static final long SIDE;
+
+    static {
+        //fixed seed so keys are stable between runs and processes
+        SplittableRandom random = new SplittableRandom(0x5EED_C4E55L);
+        for (long[] keys : PIECES) {
+            for (int square = 0; square < keys.length; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        for (int i = 1; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT.length; i++) {
+            EN_PASSANT[i] = random.nextLong();
+        }
+        SIDE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(Color color, PieceType type, int square) {
+        return PIECES[color.ordinal() * 6 + type.ordinal()][square];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long enPassant(int column) {
+        return EN_PASSANT[column];
+    }
+
+    public static long side() {
+        return SIDE;
+    }
+}
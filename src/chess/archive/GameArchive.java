@@ -0,0 +1,50 @@
+package chess.archive;
+
+//layout shared by the writer and the reader, all numbers big-endian:
+//header: magic, version, reserved short, games per block, block count, game count, index offset
+//block: game count, move count, then one column per field: results (byte), white elo (short),
+//black elo (short), date (int), move start (int, one extra entry closing the last game) and the move codes (short)
+//index: one block offset (long) per block
+final class GameArchive {
+    static final int MAGIC = 0x4A434741;
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int INDEX_ENTRY_BYTES = 8;
+    static final int DEFAULT_GAMES_PER_BLOCK = 4096;
+
+    //what each game takes in a block besides its moves: result, two elos, date and move start
+    static final int GAME_BYTES = 13;
+
+    private static final int BLOCK_HEADER_BYTES = 8;
+
+    private GameArchive() {
+    }
+
+    static int blockBytes(int games, int moves) {
+        return movesOffset(games) + 2 * moves;
+    }
+
+    static int resultsOffset() {
+        return BLOCK_HEADER_BYTES;
+    }
+
+    static int whiteElosOffset(int games) {
+        return BLOCK_HEADER_BYTES + games;
+    }
+
+    static int blackElosOffset(int games) {
+        return whiteElosOffset(games) + 2 * games;
+    }
+
+    static int datesOffset(int games) {
+        return blackElosOffset(games) + 2 * games;
+    }
+
+    static int moveStartsOffset(int games) {
+        return datesOffset(games) + 4 * games;
+    }
+
+    static int movesOffset(int games) {
+        return moveStartsOffset(games) + 4 * (games + 1);
+    }
+}
@@ -0,0 +1,139 @@
+package chess.archive;
+
+import chess.exceptions.ChessException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//random access to archived games; blocks are mapped the first time one of their games is read
+public class GameArchiveReader implements Closeable {
+    private final FileChannel channel;
+    private final int gamesPerBlock;
+    private final long gameCount;
+    private final long[] blockOffsets;
+    private final MappedByteBuffer[] blocks;
+
+    public GameArchiveReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        //a file too short or corrupt for the header never gets a reader, so the channel is closed here
+        try {
+            ByteBuffer header = ByteBuffer.allocate(GameArchive.HEADER_BYTES);
+            readFully(header, 0);
+            header.flip();
+            if (header.getInt() != GameArchive.MAGIC) {
+                throw new ChessException("Not a game archive: " + path);
+            }
+            short version = header.getShort();
+            if (version != GameArchive.VERSION) {
+                throw new ChessException("Unsupported game archive version " + version);
+            }
+            header.getShort();
+            this.gamesPerBlock = header.getInt();
+            int blockCount = header.getInt();
+            this.gameCount = header.getLong();
+            long indexOffset = header.getLong();
+
+            //the counts size the index and the block table, so they are checked against the file before anything is
+            //allocated; the index is the last thing the writer puts in the file
+            if (gamesPerBlock <= 0 || blockCount < 0 || gameCount < 0) {
+                throw corrupt(path, "bad counts in the header");
+            }
+            if (gameCount > (channel.size() - GameArchive.HEADER_BYTES) / GameArchive.GAME_BYTES) {
+                throw corrupt(path, "the file is too small for " + gameCount + " games");
+            }
+            if (blockCount != (gameCount + gamesPerBlock - 1) / gamesPerBlock) {
+                throw corrupt(path, blockCount + " blocks can't hold " + gameCount + " games");
+            }
+            if (indexOffset < GameArchive.HEADER_BYTES
+                    || indexOffset + (long) blockCount * GameArchive.INDEX_ENTRY_BYTES != channel.size()) {
+                throw corrupt(path, "the block index doesn't end the file");
+            }
+
+            ByteBuffer index = ByteBuffer.allocate(blockCount * GameArchive.INDEX_ENTRY_BYTES);
+            readFully(index, indexOffset);
+            index.flip();
+            this.blockOffsets = new long[blockCount + 1];
+            blockOffsets[blockCount] = indexOffset;
+            long previous = GameArchive.HEADER_BYTES;
+            for (int i = 0; i < blockCount; i++) {
+                blockOffsets[i] = index.getLong();
+                if (blockOffsets[i] < previous || blockOffsets[i] > indexOffset) {
+                    throw corrupt(path, "block " + i + " lies outside the file");
+                }
+                previous = blockOffsets[i];
+            }
+            this.blocks = new MappedByteBuffer[blockCount];
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    public GameRecord read(long game) throws IOException {
+        if (game < 0 || game >= gameCount) {
+            throw new IndexOutOfBoundsException("Game " + game + " of " + gameCount);
+        }
+        ByteBuffer block = block((int) (game / gamesPerBlock));
+        int i = (int) (game % gamesPerBlock);
+        int games = block.getInt(0);
+        if (games <= i || games > (block.limit() - GameArchive.movesOffset(0)) / GameArchive.GAME_BYTES) {
+            throw new ChessException("Corrupt game archive block " + game / gamesPerBlock);
+        }
+        int moveStart = block.getInt(GameArchive.moveStartsOffset(games) + 4 * i);
+        int moveEnd = block.getInt(GameArchive.moveStartsOffset(games) + 4 * (i + 1));
+        if (moveStart < 0 || moveEnd < moveStart
+                || GameArchive.movesOffset(games) + 2L * moveEnd > block.limit()) {
+            throw new ChessException("Corrupt game archive block " + game / gamesPerBlock);
+        }
+        short[] moves = new short[moveEnd - moveStart];
+        int movesOffset = GameArchive.movesOffset(games) + 2 * moveStart;
+        for (int j = 0; j < moves.length; j++) {
+            moves[j] = block.getShort(movesOffset + 2 * j);
+        }
+        return new GameRecord(
+                block.get(GameArchive.resultsOffset() + i),
+                block.getShort(GameArchive.whiteElosOffset(games) + 2 * i),
+                block.getShort(GameArchive.blackElosOffset(games) + 2 * i),
+                block.getInt(GameArchive.datesOffset(games) + 4 * i),
+                moves);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private synchronized ByteBuffer block(int index) throws IOException {
+        if (blocks[index] == null) {
+            long offset = blockOffsets[index];
+            long size = blockOffsets[index + 1] - offset;
+            MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+            if (block.limit() < GameArchive.movesOffset(0)) {
+                throw new ChessException("Corrupt game archive block " + index);
+            }
+            blocks[index] = block;
+        }
+        return blocks[index];
+    }
+
+    private static ChessException corrupt(Path path, String reason) {
+        return new ChessException("Corrupt game archive " + path + ": " + reason);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new ChessException("Truncated game archive");
+            }
+        }
+    }
+}
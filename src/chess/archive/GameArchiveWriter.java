@@ -0,0 +1,134 @@
+package chess.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+//appends games in blocks; the offset index and the final header are written on close
+public class GameArchiveWriter implements Closeable {
+    private final FileChannel channel;
+    private final int gamesPerBlock;
+
+    private final byte[] results;
+    private final short[] whiteElos;
+    private final short[] blackElos;
+    private final int[] dates;
+    private final int[] moveStarts;
+    private short[] moves = new short[1 << 16];
+    private int blockGames;
+    private int blockMoves;
+
+    private long[] blockOffsets = new long[64];
+    private int blockCount;
+    private long gameCount;
+    private long position = GameArchive.HEADER_BYTES;
+
+    public GameArchiveWriter(Path path) throws IOException {
+        this(path, GameArchive.DEFAULT_GAMES_PER_BLOCK);
+    }
+
+    public GameArchiveWriter(Path path, int gamesPerBlock) throws IOException {
+        if (gamesPerBlock < 1) {
+            throw new IllegalArgumentException("A block needs room for at least one game");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.gamesPerBlock = gamesPerBlock;
+        this.results = new byte[gamesPerBlock];
+        this.whiteElos = new short[gamesPerBlock];
+        this.blackElos = new short[gamesPerBlock];
+        this.dates = new int[gamesPerBlock];
+        this.moveStarts = new int[gamesPerBlock + 1];
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    //returns the index the game can be read back with
+    public long add(GameRecord game) throws IOException {
+        short[] codes = game.moveCodes();
+        if (blockMoves + codes.length > moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(moves.length * 2, blockMoves + codes.length));
+        }
+        results[blockGames] = (byte) game.getResult();
+        whiteElos[blockGames] = (short) game.getWhiteElo();
+        blackElos[blockGames] = (short) game.getBlackElo();
+        dates[blockGames] = game.getDate();
+        moveStarts[blockGames] = blockMoves;
+        System.arraycopy(codes, 0, moves, blockMoves, codes.length);
+        blockMoves += codes.length;
+        blockGames++;
+        if (blockGames == gamesPerBlock) {
+            flushBlock();
+        }
+        return gameCount++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (blockGames > 0) {
+                flushBlock();
+            }
+            long indexOffset = position;
+            ByteBuffer index = ByteBuffer.allocate(blockCount * GameArchive.INDEX_ENTRY_BYTES);
+            for (int i = 0; i < blockCount; i++) {
+                index.putLong(blockOffsets[i]);
+            }
+            index.flip();
+            write(index);
+
+            ByteBuffer header = ByteBuffer.allocate(GameArchive.HEADER_BYTES);
+            header.putInt(GameArchive.MAGIC);
+            header.putShort(GameArchive.VERSION);
+            header.putShort((short) 0);
+            header.putInt(gamesPerBlock);
+            header.putInt(blockCount);
+            header.putLong(gameCount);
+            header.putLong(indexOffset);
+            header.flip();
+            channel.write(header, 0);
+        } finally {
+            channel.close();
+        }
+    }
+
+    //columns follow each other so a scan over one field touches only that field's bytes
+    private void flushBlock() throws IOException {
+        moveStarts[blockGames] = blockMoves;
+        ByteBuffer block = ByteBuffer.allocate(GameArchive.blockBytes(blockGames, blockMoves));
+        block.putInt(blockGames);
+        block.putInt(blockMoves);
+        block.put(results, 0, blockGames);
+        block.asShortBuffer().put(whiteElos, 0, blockGames);
+        block.position(block.position() + 2 * blockGames);
+        block.asShortBuffer().put(blackElos, 0, blockGames);
+        block.position(block.position() + 2 * blockGames);
+        block.asIntBuffer().put(dates, 0, blockGames);
+        block.position(block.position() + 4 * blockGames);
+        block.asIntBuffer().put(moveStarts, 0, blockGames + 1);
+        block.position(block.position() + 4 * (blockGames + 1));
+        block.asShortBuffer().put(moves, 0, blockMoves);
+        block.position(block.limit());
+        block.flip();
+
+        if (blockCount == blockOffsets.length) {
+            blockOffsets = Arrays.copyOf(blockOffsets, blockCount * 2);
+        }
+        blockOffsets[blockCount++] = position;
+        write(block);
+        blockGames = 0;
+        blockMoves = 0;
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package chess.archive;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.MoveList;
+import chess.exceptions.ChessException;
+
+//one archived game: a fixed-size header and its moves as 16-bit codes
+public class GameRecord {
+    public static final int UNKNOWN = 0;
+    public static final int WHITE_WINS = 1;
+    public static final int BLACK_WINS = 2;
+    public static final int DRAW = 3;
+
+    //code = from | to << 6 | promotion << 12, squares numbered like ChessBoard; promotion is 0 until the rules have it
+    private static final int SQUARE_MASK = 0x3F;
+
+    private final int result;
+    private final int whiteElo;
+    private final int blackElo;
+    private final int date;
+    private final short[] moves;
+
+    public GameRecord(int result, int whiteElo, int blackElo, int date, short[] moves) {
+        if (result < UNKNOWN || result > DRAW) {
+            throw new IllegalArgumentException("Unknown result code " + result);
+        }
+        this.result = result;
+        this.whiteElo = whiteElo;
+        this.blackElo = blackElo;
+        this.date = date;
+        this.moves = moves;
+    }
+
+    public int getResult() {
+        return result;
+    }
+
+    public int getWhiteElo() {
+        return whiteElo;
+    }
+
+    public int getBlackElo() {
+        return blackElo;
+    }
+
+    //yyyymmdd, with unknown parts left as zero
+    public int getDate() {
+        return date;
+    }
+
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    public short getMoveCode(int index) {
+        return moves[index];
+    }
+
+    short[] moveCodes() {
+        return moves;
+    }
+
+    //plays the game from the initial position
+    public ChessMatch replay() {
+        ChessMatch chessMatch = new ChessMatch();
+        MoveList legalMoves = new MoveList();
+        for (int i = 0; i < moves.length; i++) {
+            chessMatch.legalMoves(legalMoves);
+            int move = legalMoves.find(from(moves[i]), to(moves[i]));
+            if (move == Move.NONE) {
+                throw new ChessException("Illegal move in archived game at ply " + (i + 1));
+            }
+            chessMatch.playMove(move);
+        }
+        return chessMatch;
+    }
+
+    public static short encode(int move) {
+        return (short) (Move.from(move) | Move.to(move) << 6);
+    }
+
+    public static int from(short code) {
+        return code & SQUARE_MASK;
+    }
+
+    public static int to(short code) {
+        return (code >>> 6) & SQUARE_MASK;
+    }
+
+    public static int promotion(short code) {
+        return (code >>> 12) & 0xF;
+    }
+
+    public static int result(String pgnResult) {
+        return switch (pgnResult) {
+            case "1-0" -> WHITE_WINS;
+            case "0-1" -> BLACK_WINS;
+            case "1/2-1/2" -> DRAW;
+            default -> UNKNOWN;
+        };
+    }
+}
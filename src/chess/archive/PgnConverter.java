@@ -0,0 +1,125 @@
+package chess.archive;
+
+import chess.ChessMatch;
+import chess.MoveList;
+import chess.exceptions.ChessException;
+import chess.pgn.BatchResult;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnPipeline;
+import chess.pgn.PgnReader;
+import chess.pgn.ReplayListener;
+import chess.pgn.ReplayProgress;
+import chess.pgn.San;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+//parses games on a fork-join pool and writes them in file order; games that can't be replayed are left out
+public class PgnConverter {
+    private final PgnPipeline<Batch> pipeline;
+
+    public PgnConverter(ForkJoinPool pool) {
+        this.pipeline = new PgnPipeline<>(pool, PgnConverter::convert);
+    }
+
+    public ReplayProgress convert(Path pgn, Path archive, ReplayListener listener) throws IOException {
+        try (PgnReader reader = new PgnReader(pgn); GameArchiveWriter writer = new GameArchiveWriter(archive)) {
+            return pipeline.run(reader, batch -> {
+                for (GameRecord record : batch.records) {
+                    writer.add(record);
+                }
+            }, listener);
+        }
+    }
+
+    //games have to start from the initial position; throws ChessException if a move can't be played
+    public static GameRecord toRecord(PgnGame game, MoveList scratch) {
+        return toRecord(game, game.getMoves(), scratch);
+    }
+
+    private static GameRecord toRecord(PgnGame game, List<String> sanMoves, MoveList scratch) {
+        if (game.getTag("FEN") != null) {
+            throw new ChessException("Archived games start from the initial position");
+        }
+        short[] codes = new short[sanMoves.size()];
+        ChessMatch chessMatch = new ChessMatch();
+        for (int i = 0; i < codes.length; i++) {
+            int move = San.parse(chessMatch, sanMoves.get(i), scratch);
+            chessMatch.playMove(move);
+            codes[i] = GameRecord.encode(move);
+        }
+        return new GameRecord(GameRecord.result(game.getResult()), number(game.getTag("WhiteElo")),
+                number(game.getTag("BlackElo")), date(game.getTag("Date")), codes);
+    }
+
+    private static Batch convert(List<PgnGame> games) {
+        MoveList scratch = new MoveList();
+        Batch batch = new Batch(games.size());
+        for (PgnGame game : games) {
+            List<String> sanMoves = game.getMoves();
+            if (game.getTag("FEN") != null || hasPromotion(sanMoves)) {
+                batch.addUnsupported();
+                continue;
+            }
+            try {
+                GameRecord record = toRecord(game, sanMoves, scratch);
+                batch.records.add(record);
+                batch.addGame(record.getMoveCount());
+            } catch (ChessException e) {
+                batch.addInvalid();
+            }
+        }
+        return batch;
+    }
+
+    private static boolean hasPromotion(List<String> sanMoves) {
+        for (String san : sanMoves) {
+            if (San.isPromotion(san)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int number(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Math.min(Short.MAX_VALUE, Integer.parseInt(value.trim())));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    //PGN dates look like 1858.??.??; unknown parts become zero
+    private static int date(String value) {
+        if (value == null || value.length() != 10) {
+            return 0;
+        }
+        return digits(value, 0, 4) * 10000 + digits(value, 5, 7) * 100 + digits(value, 8, 10);
+    }
+
+    private static int digits(String value, int start, int end) {
+        int number = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    private static class Batch extends BatchResult {
+        private final List<GameRecord> records;
+
+        Batch(int size) {
+            this.records = new ArrayList<>(size);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package chess.book;
+
+import chess.ChessPosition;
+
+public class BookMove {
+    private final ChessPosition source;
+    private final ChessPosition target;
+    private final int weight;
+
+    public BookMove(ChessPosition source, ChessPosition target, int weight) {
+        this.source = source;
+        this.target = target;
+        this.weight = weight;
+    }
+
+    public ChessPosition getSource() {
+        return source;
+    }
+
+    public ChessPosition getTarget() {
+        return target;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return source.toString() + target;
+    }
+}
@@ -0,0 +1,69 @@
+package chess.book;
+
+import chess.ChessMatch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+//collects weighted moves in memory and writes them as a sorted Polyglot book
+public class BookWriter {
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final PolyglotKey keys;
+    private final Map<Long, Map<Integer, Integer>> weights = new HashMap<>();
+
+    public BookWriter() {
+        this(PolyglotKey.standard());
+    }
+
+    public BookWriter(PolyglotKey keys) {
+        this.keys = keys;
+    }
+
+    //adds weight to a move played in the current position; the same move seen again accumulates
+    public void add(ChessMatch chessMatch, int move, int weight) {
+        weights.computeIfAbsent(keys.key(chessMatch), k -> new HashMap<>())
+                .merge(OpeningBook.toBookMove(move), weight, Integer::sum);
+    }
+
+    public void write(Path path) throws IOException {
+        long[][] entries = new long[size()][];
+        int n = 0;
+        for (Map.Entry<Long, Map<Integer, Integer>> position : weights.entrySet()) {
+            for (Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+                entries[n++] = new long[]{position.getKey(), move.getKey(), Math.min(move.getValue(), MAX_WEIGHT)};
+            }
+        }
+        //by key, then the heaviest move first as Polyglot tools do
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compareUnsigned(a[0], b[0]) : Long.compare(b[2], a[2]));
+
+        ByteBuffer buffer = ByteBuffer.allocate(entries.length * OpeningBook.ENTRY_BYTES);
+        for (long[] entry : entries) {
+            buffer.putLong(entry[0]);
+            buffer.putShort((short) entry[1]);
+            buffer.putShort((short) entry[2]);
+            buffer.putInt(0);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<Integer, Integer> moves : weights.values()) {
+            size += moves.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,155 @@
+package chess.book;
+
+import chess.ChessBoard;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Move;
+import chess.MoveList;
+import chess.PieceType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+//Polyglot book: 16-byte entries of key, move, weight and learn data, sorted by key as an unsigned number
+public class OpeningBook implements Closeable {
+    public static final int ENTRY_BYTES = 16;
+
+    //one mapping can't exceed 2 GB, so big books are mapped in 1 GB chunks
+    private static final int CHUNK_SHIFT = 26;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private final FileChannel channel;
+    private final PolyglotKey keys;
+    private final MappedByteBuffer[] chunks;
+    private final long entryCount;
+
+    public OpeningBook(Path path) throws IOException {
+        this(path, PolyglotKey.standard());
+    }
+
+    public OpeningBook(Path path, PolyglotKey keys) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.keys = keys;
+        this.entryCount = channel.size() / ENTRY_BYTES;
+        this.chunks = new MappedByteBuffer[(int) ((entryCount + CHUNK_MASK) >>> CHUNK_SHIFT)];
+        for (int i = 0; i < chunks.length; i++) {
+            long first = (long) i << CHUNK_SHIFT;
+            long entries = Math.min(1L << CHUNK_SHIFT, entryCount - first);
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, first * ENTRY_BYTES, entries * ENTRY_BYTES);
+        }
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    //the book moves that are legal in this position, in book order
+    public List<BookMove> getMoves(ChessMatch chessMatch) {
+        List<BookMove> moves = new ArrayList<>();
+        long key = keys.key(chessMatch);
+        MoveList legalMoves = chessMatch.legalMoves();
+        for (long i = lowerBound(key); i < entryCount && key(i) == key; i++) {
+            int move = toMove(chessMatch, legalMoves, entryMove(i));
+            if (move != Move.NONE) {
+                moves.add(new BookMove(position(Move.from(move)), position(Move.to(move)), weight(i)));
+            }
+        }
+        return moves;
+    }
+
+    //chooses among the book moves in proportion to their weights; null when the position is out of book
+    public BookMove pickMove(ChessMatch chessMatch, Random random) {
+        List<BookMove> moves = getMoves(chessMatch);
+        int total = 0;
+        for (BookMove move : moves) {
+            total += move.getWeight();
+        }
+        if (total == 0) {
+            return null;
+        }
+        int choice = random.nextInt(total);
+        for (BookMove move : moves) {
+            choice -= move.getWeight();
+            if (choice < 0) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long lowerBound(long key) {
+        long low = 0;
+        long high = entryCount;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(key(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long key(long entry) {
+        return chunk(entry).getLong(offset(entry));
+    }
+
+    private int entryMove(long entry) {
+        return chunk(entry).getShort(offset(entry) + 8) & 0xFFFF;
+    }
+
+    private int weight(long entry) {
+        return chunk(entry).getShort(offset(entry) + 10) & 0xFFFF;
+    }
+
+    private MappedByteBuffer chunk(long entry) {
+        return chunks[(int) (entry >>> CHUNK_SHIFT)];
+    }
+
+    private static int offset(long entry) {
+        return (int) (entry & CHUNK_MASK) * ENTRY_BYTES;
+    }
+
+    //bits 0-5 hold the target and 6-11 the source, counted from a1; castling is written as the king taking its rook
+    static int toMove(ChessMatch chessMatch, MoveList legalMoves, int bookMove) {
+        if ((bookMove >>> 12) != 0) {
+            //promotions, which the rules don't have yet
+            return Move.NONE;
+        }
+        int to = PolyglotKey.polyglotSquare(bookMove & 0x3F);
+        int from = PolyglotKey.polyglotSquare((bookMove >>> 6) & 0x3F);
+        ChessPiece piece = chessMatch.getBoard().pieceAt(from);
+        if (piece != null && piece.getType() == PieceType.KING && Math.abs(to - from) > 2
+                && ChessBoard.row(to) == ChessBoard.row(from)) {
+            to = to > from ? from + 2 : from - 2;
+        }
+        return legalMoves.find(from, to);
+    }
+
+    static int toBookMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        if (Move.isCastling(move)) {
+            to = to > from ? from + 3 : from - 4;
+        }
+        return PolyglotKey.polyglotSquare(to) | PolyglotKey.polyglotSquare(from) << 6;
+    }
+
+    private static ChessPosition position(int square) {
+        return new ChessPosition((char) ('a' + ChessBoard.column(square)), ChessBoard.SIZE - ChessBoard.row(square));
+    }
+}
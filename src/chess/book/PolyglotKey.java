@@ -0,0 +1,107 @@
+package chess.book;
+
+import chess.ChessBoard;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import chess.PieceType;
+import chess.exceptions.ChessException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+//position hash laid out the way Polyglot books expect: 768 piece keys, 4 castling, 8 en passant files and the side
+public class PolyglotKey {
+    public static final int KEY_COUNT = 781;
+
+    private static final int CASTLING_OFFSET = 768;
+    private static final int EN_PASSANT_OFFSET = 772;
+    private static final int TURN_OFFSET = 780;
+
+    private static final PolyglotKey STANDARD = new PolyglotKey(PolyglotRandom.KEYS);
+
+    private final long[] keys;
+
+    private PolyglotKey(long[] keys) {
+        this.keys = keys;
+    }
+
+    //the built-in Random64 table every published Polyglot book is keyed with
+    public static PolyglotKey standard() {
+        return STANDARD;
+    }
+
+    //reads a custom table of 781 big-endian longs, for books keyed with something other than the standard table
+    public static PolyglotKey load(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length != KEY_COUNT * Long.BYTES) {
+            throw new ChessException("A Polyglot key table holds " + KEY_COUNT + " keys");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long[] keys = new long[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = buffer.getLong();
+        }
+        return new PolyglotKey(keys);
+    }
+
+    //a fixed-seed table for books built by this program; they won't match books keyed with the standard table
+    public static PolyglotKey generate(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] keys = new long[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = random.nextLong();
+        }
+        return new PolyglotKey(keys);
+    }
+
+    public long key(ChessMatch chessMatch) {
+        ChessBoard board = chessMatch.getBoard();
+        long key = 0L;
+        for (long pieces = board.occupied(); pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            ChessPiece piece = board.pieceAt(square);
+            int kind = 2 * piece.getType().ordinal() + (piece.getColor() == Color.WHITE ? 1 : 0);
+            key ^= keys[64 * kind + polyglotSquare(square)];
+        }
+
+        int rights = chessMatch.getCastlingRights();
+        if ((rights & ChessMatch.WHITE_KINGSIDE) != 0) {
+            key ^= keys[CASTLING_OFFSET];
+        }
+        if ((rights & ChessMatch.WHITE_QUEENSIDE) != 0) {
+            key ^= keys[CASTLING_OFFSET + 1];
+        }
+        if ((rights & ChessMatch.BLACK_KINGSIDE) != 0) {
+            key ^= keys[CASTLING_OFFSET + 2];
+        }
+        if ((rights & ChessMatch.BLACK_QUEENSIDE) != 0) {
+            key ^= keys[CASTLING_OFFSET + 3];
+        }
+
+        //the en passant file only counts when a pawn of the side to move stands next to the pawn that just moved
+        ChessPiece enPassant = chessMatch.getEnPassant();
+        Color side = chessMatch.getCurrentPlayer();
+        if (enPassant != null && enPassant.getSquare() >= 0 && enPassant.getColor() != side) {
+            int square = enPassant.getSquare();
+            int column = ChessBoard.column(square);
+            long neighbours = (column > 0 ? 1L << (square - 1) : 0L) | (column < 7 ? 1L << (square + 1) : 0L);
+            if ((neighbours & board.pieces(side, PieceType.PAWN)) != 0) {
+                key ^= keys[EN_PASSANT_OFFSET + column];
+            }
+        }
+
+        if (side == Color.WHITE) {
+            key ^= keys[TURN_OFFSET];
+        }
+        return key;
+    }
+
+    //Polyglot numbers squares from a1, the board from a8
+    static int polyglotSquare(int square) {
+        return square ^ 56;
+    }
+}
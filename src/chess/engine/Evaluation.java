@@ -0,0 +1,166 @@
+package chess.engine;
+
+import chess.Attacks;
+import chess.ChessBoard;
+import chess.ChessMatch;
+import chess.Color;
+import chess.PieceSquareTables;
+import chess.PieceType;
+
+public final class Evaluation {
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    //bonus per reachable square, indexed by piece type
+    private static final int[] MIDDLEGAME_MOBILITY = {0, 4, 5, 2, 1, 0};
+    private static final int[] ENDGAME_MOBILITY = {0, 4, 5, 4, 2, 0};
+    //weight of each attack on a square next to the enemy king
+    private static final int[] KING_ATTACK_WEIGHTS = {0, 2, 2, 3, 5, 0};
+    private static final int MAX_KING_DANGER = 500;
+
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = FILE_A << 7;
+
+    //pawn structure terms, passed pawn bonuses are indexed by rank counted from the pawn's own side
+    private static final int[] MIDDLEGAME_PASSED = {0, 0, 5, 10, 20, 35, 60, 0};
+    private static final int[] ENDGAME_PASSED = {0, 10, 15, 25, 45, 75, 120, 0};
+    private static final int MIDDLEGAME_DOUBLED = 10;
+    private static final int ENDGAME_DOUBLED = 20;
+    private static final int MIDDLEGAME_ISOLATED = 10;
+    private static final int ENDGAME_ISOLATED = 15;
+    private static final int MIDDLEGAME_SHIELD = 12;
+
+    private static final long[] FILES = new long[ChessBoard.SIZE];
+    private static final long[] ADJACENT_FILES = new long[ChessBoard.SIZE];
+    //squares ahead of a pawn on its own and adjacent files, by color ordinal
+    private static final long[][] PASSED_MASKS = new long[2][ChessBoard.SQUARES];
+    //the two ranks in front of the king, one file either side
+    private static final long[][] SHIELD_MASKS = new long[2][ChessBoard.SQUARES];
+
+    static {
+        for (int column = 0; column < ChessBoard.SIZE; column++) {
+            FILES[column] = FILE_A << column;
+        }
+        for (int column = 0; column < ChessBoard.SIZE; column++) {
+            ADJACENT_FILES[column] = (column > 0 ? FILES[column - 1] : 0) | (column < 7 ? FILES[column + 1] : 0);
+        }
+        for (int square = 0; square < ChessBoard.SQUARES; square++) {
+            int row = ChessBoard.row(square);
+            long span = FILES[ChessBoard.column(square)] | ADJACENT_FILES[ChessBoard.column(square)];
+            for (int other = 0; other < ChessBoard.SQUARES; other++) {
+                long bit = 1L << other;
+                int otherRow = ChessBoard.row(other);
+                if ((span & bit) == 0) {
+                    continue;
+                }
+                if (otherRow < row) {
+                    PASSED_MASKS[Color.WHITE.ordinal()][square] |= bit;
+                    if (otherRow >= row - 2) {
+                        SHIELD_MASKS[Color.WHITE.ordinal()][square] |= bit;
+                    }
+                }
+                if (otherRow > row) {
+                    PASSED_MASKS[Color.BLACK.ordinal()][square] |= bit;
+                    if (otherRow <= row + 2) {
+                        SHIELD_MASKS[Color.BLACK.ordinal()][square] |= bit;
+                    }
+                }
+            }
+        }
+    }
+
+    private Evaluation() {
+    }
+
+    //score in centipawns from the side to move's point of view
+    public static int evaluate(ChessMatch chessMatch) {
+        return evaluate(chessMatch, null);
+    }
+
+    //pawn structure is looked up in pawnTable when one is given and computed from scratch otherwise
+    public static int evaluate(ChessMatch chessMatch, PawnTable pawnTable) {
+        ChessBoard board = chessMatch.getBoard();
+        //material and piece-square terms come precomputed from the board, only the positional terms are counted here
+        long pawns = pawnTable != null ? pawnTable.probe(board.pawnKey(), board) : pawnStructure(board);
+        int middlegame = board.middlegameScore() + middlegame(pawns);
+        int endgame = board.endgameScore() + endgame(pawns);
+        for (Color color : Color.values()) {
+            int sign = color == Color.WHITE ? 1 : -1;
+            Color opponent = color == Color.WHITE ? Color.BLACK : Color.WHITE;
+            long safe = ~board.pieces(color) & ~pawnAttacks(board.pieces(opponent, PieceType.PAWN), opponent);
+            long kingZone = Attacks.kingAttacks(chessMatch.getKingSquare(opponent));
+            int mobilityMiddlegame = 0;
+            int mobilityEndgame = 0;
+            int kingDanger = 0;
+            for (int t = PieceType.KNIGHT.ordinal(); t <= PieceType.QUEEN.ordinal(); t++) {
+                PieceType type = PIECE_TYPES[t];
+                for (long pieces = board.pieces(color, type); pieces != 0; pieces &= pieces - 1) {
+                    long attacks = Attacks.attacks(type, color, Long.numberOfTrailingZeros(pieces), board.occupied());
+                    int squares = Long.bitCount(attacks & safe);
+                    mobilityMiddlegame += MIDDLEGAME_MOBILITY[t] * squares;
+                    mobilityEndgame += ENDGAME_MOBILITY[t] * squares;
+                    kingDanger += KING_ATTACK_WEIGHTS[t] * Long.bitCount(attacks & kingZone);
+                }
+            }
+            //danger grows faster than linearly once several pieces join the attack, so it only counts in the middlegame
+            kingDanger = Math.min(kingDanger * kingDanger / 2, MAX_KING_DANGER);
+            middlegame += sign * (mobilityMiddlegame + kingDanger);
+            endgame += sign * mobilityEndgame;
+        }
+        int phase = Math.min(board.phase(), PieceSquareTables.MAX_PHASE);
+        int score = (middlegame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return chessMatch.getCurrentPlayer() == Color.WHITE ? score : -score;
+    }
+
+    //doubled, isolated and passed pawns plus the king's pawn shield, packed as middlegame and endgame halves
+    static long pawnStructure(ChessBoard board) {
+        int middlegame = 0;
+        int endgame = 0;
+        for (Color color : Color.values()) {
+            int sign = color == Color.WHITE ? 1 : -1;
+            Color opponent = color == Color.WHITE ? Color.BLACK : Color.WHITE;
+            long pawns = board.pieces(color, PieceType.PAWN);
+            long opponentPawns = board.pieces(opponent, PieceType.PAWN);
+            for (int column = 0; column < ChessBoard.SIZE; column++) {
+                int count = Long.bitCount(pawns & FILES[column]);
+                if (count > 1) {
+                    middlegame -= sign * MIDDLEGAME_DOUBLED * (count - 1);
+                    endgame -= sign * ENDGAME_DOUBLED * (count - 1);
+                }
+                if (count > 0 && (pawns & ADJACENT_FILES[column]) == 0) {
+                    middlegame -= sign * MIDDLEGAME_ISOLATED * count;
+                    endgame -= sign * ENDGAME_ISOLATED * count;
+                }
+            }
+            for (long remaining = pawns; remaining != 0; remaining &= remaining - 1) {
+                int square = Long.numberOfTrailingZeros(remaining);
+                if ((PASSED_MASKS[color.ordinal()][square] & opponentPawns) == 0) {
+                    int rank = color == Color.WHITE ? 7 - ChessBoard.row(square) : ChessBoard.row(square);
+                    middlegame += sign * MIDDLEGAME_PASSED[rank];
+                    endgame += sign * ENDGAME_PASSED[rank];
+                }
+            }
+            long king = board.pieces(color, PieceType.KING);
+            if (king != 0) {
+                long shield = SHIELD_MASKS[color.ordinal()][Long.numberOfTrailingZeros(king)];
+                middlegame += sign * MIDDLEGAME_SHIELD * Long.bitCount(pawns & shield);
+            }
+        }
+        return ((long) middlegame << 32) | (endgame & 0xFFFFFFFFL);
+    }
+
+    private static int middlegame(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int endgame(long packed) {
+        return (int) packed;
+    }
+
+    //white pawns capture towards the lower squares, black towards the higher ones
+    private static long pawnAttacks(long pawns, Color color) {
+        if (color == Color.WHITE) {
+            return ((pawns & ~FILE_A) >>> 9) | ((pawns & ~FILE_H) >>> 7);
+        }
+        return ((pawns & ~FILE_A) << 7) | ((pawns & ~FILE_H) << 9);
+    }
+}
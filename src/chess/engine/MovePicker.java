@@ -0,0 +1,150 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+import chess.PieceSquareTables;
+import chess.PieceType;
+
+final class MovePicker {
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int CAPTURES = 2;
+    private static final int FIRST_KILLER = 3;
+    private static final int SECOND_KILLER = 4;
+    private static final int GENERATE_QUIETS = 5;
+    private static final int QUIETS = 6;
+    private static final int DONE = 7;
+
+    private final ChessMatch chessMatch;
+    private final MoveList moves = new MoveList();
+    private final int[] scores = new int[MoveList.MAX_MOVES];
+
+    private int stage;
+    private int index;
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+    private int[][] history;
+    private boolean capturesOnly;
+
+    MovePicker(ChessMatch chessMatch) {
+        this.chessMatch = chessMatch;
+    }
+
+    void init(int hashMove, int firstKiller, int secondKiller, int[][] history) {
+        this.hashMove = hashMove;
+        this.firstKiller = firstKiller;
+        this.secondKiller = secondKiller;
+        this.history = history;
+        this.capturesOnly = false;
+        this.stage = HASH_MOVE;
+    }
+
+    //quiescence only looks at captures, unless in check where every evasion counts
+    void initQuiescence(boolean inCheck, int[][] history) {
+        init(Move.NONE, Move.NONE, Move.NONE, history);
+        this.capturesOnly = !inCheck;
+        this.stage = GENERATE_CAPTURES;
+    }
+
+    //returns the next pseudo-legal move, or Move.NONE when there are none left
+    int next() {
+        while (true) {
+            switch (stage) {
+                case HASH_MOVE -> {
+                    stage = GENERATE_CAPTURES;
+                    if (hashMove != Move.NONE && chessMatch.isPseudoLegal(hashMove)) {
+                        return hashMove;
+                    }
+                }
+                case GENERATE_CAPTURES -> {
+                    chessMatch.legalCaptures(moves);
+                    scoreCaptures();
+                    index = 0;
+                    stage = CAPTURES;
+                }
+                case CAPTURES -> {
+                    int move = pickBest();
+                    if (move == Move.NONE) {
+                        stage = capturesOnly ? DONE : FIRST_KILLER;
+                    } else if (move != hashMove) {
+                        return move;
+                    }
+                }
+                case FIRST_KILLER -> {
+                    stage = SECOND_KILLER;
+                    if (isUsefulKiller(firstKiller)) {
+                        return firstKiller;
+                    }
+                }
+                case SECOND_KILLER -> {
+                    stage = GENERATE_QUIETS;
+                    if (secondKiller != firstKiller && isUsefulKiller(secondKiller)) {
+                        return secondKiller;
+                    }
+                }
+                case GENERATE_QUIETS -> {
+                    chessMatch.legalQuietMoves(moves);
+                    scoreQuiets();
+                    index = 0;
+                    stage = QUIETS;
+                }
+                case QUIETS -> {
+                    int move = pickBest();
+                    if (move == Move.NONE) {
+                        stage = DONE;
+                    } else if (move != hashMove && move != firstKiller && move != secondKiller) {
+                        return move;
+                    }
+                }
+                default -> {
+                    return Move.NONE;
+                }
+            }
+        }
+    }
+
+    private boolean isUsefulKiller(int killer) {
+        return killer != Move.NONE && killer != hashMove && !Move.isCapture(killer) && chessMatch.isPseudoLegal(killer);
+    }
+
+    //most valuable victim first, least valuable attacker breaks ties
+    private void scoreCaptures() {
+        ChessBoard board = chessMatch.getBoard();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            ChessPiece victim = board.pieceAt(Move.to(move));
+            //en passant finds no piece on the target square, but it always takes a pawn
+            int victimValue = PieceSquareTables.value(victim == null ? PieceType.PAWN : victim.getType());
+            scores[i] = victimValue * 8 - board.pieceAt(Move.from(move)).getType().ordinal();
+        }
+    }
+
+    private void scoreQuiets() {
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            scores[i] = history[Move.from(move)][Move.to(move)];
+        }
+    }
+
+    //selection sort one step at a time, most nodes cut off after a few moves
+    private int pickBest() {
+        if (index >= moves.size()) {
+            return Move.NONE;
+        }
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        moves.set(best, moves.get(index));
+        scores[best] = scores[index];
+        index++;
+        return move;
+    }
+}
@@ -0,0 +1,58 @@
+package chess.engine;
+
+import chess.ChessBoard;
+
+//small direct-mapped cache of pawn structure scores, owned by a single search thread
+public final class PawnTable {
+    private static final int DEFAULT_ENTRIES = 1 << 14;
+
+    private final long[] keys;
+    private final long[] scores;
+    private final boolean[] used;
+    private final int mask;
+
+    private long hits;
+    private long misses;
+
+    public PawnTable() {
+        this(DEFAULT_ENTRIES);
+    }
+
+    public PawnTable(int entries) {
+        if (entries < 1 || Integer.bitCount(entries) != 1) {
+            throw new IllegalArgumentException("Pawn table size must be a power of two");
+        }
+        this.keys = new long[entries];
+        this.scores = new long[entries];
+        this.used = new boolean[entries];
+        this.mask = entries - 1;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRate() {
+        long probes = hits + misses;
+        return probes == 0 ? 0.0 : (double) hits / probes;
+    }
+
+    //the packed score for pawnKey, or computes and caches it on a miss
+    long probe(long pawnKey, ChessBoard board) {
+        int index = (int) pawnKey & mask;
+        if (used[index] && keys[index] == pawnKey) {
+            hits++;
+            return scores[index];
+        }
+        misses++;
+        long score = Evaluation.pawnStructure(board);
+        keys[index] = pawnKey;
+        scores[index] = score;
+        used[index] = true;
+        return score;
+    }
+}
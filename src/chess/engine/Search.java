@@ -0,0 +1,146 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.TranspositionTable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Search {
+    public static final int INFINITY = 32000;
+    public static final int MATE = 31000;
+    public static final int MAX_PLY = 128;
+    public static final int MAX_DEPTH = 64;
+
+    private final TranspositionTable table;
+    private final int threads;
+    //one per thread and kept between searches, pawn structures carry over from move to move
+    private final PawnTable[] pawnTables;
+
+    //every search gets a generation; stop() ends the latest one, so a stop that arrives between prepare() and
+    //search() still counts while a finished search never cuts the next one short
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long preparedGeneration;
+    private volatile long stoppedGeneration;
+    private long searchGeneration;
+    private volatile boolean stopped;
+    private volatile long deadline;
+    private volatile SearchWorker[] workers = new SearchWorker[0];
+    private long startTime;
+    private SearchListener listener;
+
+    public Search(TranspositionTable table, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread");
+        }
+        this.table = table;
+        this.threads = threads;
+        this.pawnTables = new PawnTable[threads];
+        for (int i = 0; i < threads; i++) {
+            pawnTables[i] = new PawnTable();
+        }
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    //claims a generation for the next search; call it on the controlling thread before search() runs on another
+    //one, so a stop() issued between the two is not lost. Without it search() claims its own
+    public void prepare() {
+        preparedGeneration = generation.incrementAndGet();
+    }
+
+    //blocks until maxDepth is reached, the time runs out or stop() is called; a zero time limit means no limit
+    public SearchInfo search(ChessMatch chessMatch, int maxDepth, long timeLimitMillis, SearchListener listener) {
+        long prepared = preparedGeneration;
+        preparedGeneration = 0;
+        this.searchGeneration = prepared != 0 ? prepared : generation.incrementAndGet();
+        this.stopped = false;
+        this.listener = listener;
+        this.startTime = System.nanoTime();
+        this.deadline = timeLimitMillis > 0 ? startTime + timeLimitMillis * 1_000_000 : Long.MAX_VALUE;
+        table.newSearch();
+        int depth = Math.max(1, Math.min(maxDepth, MAX_DEPTH));
+
+        //Lazy SMP: every worker searches its own copy of the position and they meet in the shared table
+        SearchWorker[] newWorkers = new SearchWorker[threads];
+        for (int i = 0; i < threads; i++) {
+            newWorkers[i] = new SearchWorker(this, new ChessMatch(chessMatch), pawnTables[i], i);
+        }
+        workers = newWorkers;
+        Thread[] helpers = new Thread[threads - 1];
+        for (int i = 1; i < threads; i++) {
+            SearchWorker worker = newWorkers[i];
+            helpers[i - 1] = new Thread(() -> worker.iterate(depth), "search-helper-" + i);
+            helpers[i - 1].start();
+        }
+
+        SearchInfo result = newWorkers[0].iterate(depth);
+        stopped = true;
+        for (Thread helper : helpers) {
+            try {
+                helper.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return result;
+    }
+
+    //restarts the clock of a running search, e.g. when a ponder search becomes a real one; zero means no limit
+    public void setTimeLimit(long timeLimitMillis) {
+        deadline = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1_000_000 : Long.MAX_VALUE;
+    }
+
+    public void stop() {
+        stoppedGeneration = generation.get();
+    }
+
+    public long getNodes() {
+        long nodes = 0;
+        for (SearchWorker worker : workers) {
+            nodes += worker.getNodes();
+        }
+        return nodes;
+    }
+
+    public long getPawnTableHits() {
+        long hits = 0;
+        for (PawnTable pawnTable : pawnTables) {
+            hits += pawnTable.getHits();
+        }
+        return hits;
+    }
+
+    public long getPawnTableMisses() {
+        long misses = 0;
+        for (PawnTable pawnTable : pawnTables) {
+            misses += pawnTable.getMisses();
+        }
+        return misses;
+    }
+
+    TranspositionTable table() {
+        return table;
+    }
+
+    boolean shouldStop() {
+        if (!stopped && (stoppedGeneration >= searchGeneration || System.nanoTime() > deadline)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    SearchInfo report(int depth, int score, int[] principalVariation) {
+        long elapsed = (System.nanoTime() - startTime) / 1_000_000;
+        SearchInfo info = new SearchInfo(depth, score, getNodes(), elapsed, principalVariation);
+        if (listener != null) {
+            listener.onIteration(info);
+        }
+        return info;
+    }
+}
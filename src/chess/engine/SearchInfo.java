@@ -0,0 +1,72 @@
+package chess.engine;
+
+import chess.Move;
+
+public class SearchInfo {
+    private final int depth;
+    private final int score;
+    private final long nodes;
+    private final long timeMillis;
+    private final int[] principalVariation;
+
+    public SearchInfo(int depth, int score, long nodes, long timeMillis, int[] principalVariation) {
+        this.depth = depth;
+        this.score = score;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+        this.principalVariation = principalVariation;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getNodesPerSecond() {
+        return nodes * 1000 / Math.max(1, timeMillis);
+    }
+
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    public int getBestMove() {
+        return principalVariation.length > 0 ? principalVariation[0] : Move.NONE;
+    }
+
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    //moves until mate, negative when the side to move gets mated
+    public int getMateIn() {
+        int plies = Search.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("depth ").append(depth);
+        sb.append(isMate() ? " score mate " + getMateIn() : " score cp " + score);
+        sb.append(" nodes ").append(nodes);
+        sb.append(" nps ").append(getNodesPerSecond());
+        sb.append(" time ").append(timeMillis);
+        sb.append(" pv");
+        for (int move : principalVariation) {
+            sb.append(' ').append(Move.toString(move));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,311 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessMatch;
+import chess.Move;
+import chess.PieceType;
+import chess.TranspositionTable;
+
+import java.util.Arrays;
+
+final class SearchWorker {
+    private static final int ASPIRATION_WINDOW = 25;
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private final Search search;
+    private final ChessMatch chessMatch;
+    private final TranspositionTable table;
+    private final PawnTable pawnTable;
+    private final int id;
+
+    private final MovePicker[] movePickers = new MovePicker[Search.MAX_PLY];
+    private final int[][] killers = new int[Search.MAX_PLY][2];
+    private final int[][][] history = new int[2][ChessBoard.SQUARES][ChessBoard.SQUARES];
+    private final int[][] pv = new int[Search.MAX_PLY][Search.MAX_PLY];
+    private final int[] pvLength = new int[Search.MAX_PLY];
+
+    private long nodes;
+    private int completedDepth;
+    private boolean aborted;
+
+    SearchWorker(Search search, ChessMatch chessMatch, PawnTable pawnTable, int id) {
+        this.search = search;
+        this.chessMatch = chessMatch;
+        this.table = search.table();
+        this.pawnTable = pawnTable;
+        this.id = id;
+        for (int i = 0; i < movePickers.length; i++) {
+            movePickers[i] = new MovePicker(chessMatch);
+        }
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    SearchInfo iterate(int maxDepth) {
+        SearchInfo last = null;
+        int score = 0;
+        //helpers start at staggered depths so they don't all repeat the main thread's work
+        for (int depth = 1 + (id & 1); depth <= maxDepth; depth++) {
+            int result = aspiration(depth, score);
+            if (aborted) {
+                break;
+            }
+            score = result;
+            completedDepth = depth;
+            if (id == 0) {
+                last = search.report(depth, score, Arrays.copyOf(pv[0], pvLength[0]));
+            }
+            if (id != 0 && search.shouldStop()) {
+                break;
+            }
+        }
+        return last;
+    }
+
+    private int aspiration(int depth, int previousScore) {
+        if (depth < 5) {
+            return search(depth, -Search.INFINITY, Search.INFINITY, 0, false);
+        }
+        int delta = ASPIRATION_WINDOW;
+        int alpha = Math.max(previousScore - delta, -Search.INFINITY);
+        int beta = Math.min(previousScore + delta, Search.INFINITY);
+        while (true) {
+            int score = search(depth, alpha, beta, 0, false);
+            if (aborted) {
+                return score;
+            }
+            if (score <= alpha) {
+                alpha = Math.max(alpha - delta, -Search.INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(beta + delta, Search.INFINITY);
+            } else {
+                return score;
+            }
+            delta *= 2;
+        }
+    }
+
+    private int search(int depth, int alpha, int beta, int ply, boolean nullAllowed) {
+        pvLength[ply] = ply;
+        if ((++nodes & 2047) == 0 && completedDepth > 0 && search.shouldStop()) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        //a repetition inside the tree is scored as the draw it can be forced into; the root still needs a move
+        if (ply > 0 && (chessMatch.repetitions() > 0 || fiftyMoves())) {
+            return 0;
+        }
+        boolean inCheck = chessMatch.getCheck();
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0 || ply >= Search.MAX_PLY - 1) {
+            return quiescence(alpha, beta, ply, inCheck);
+        }
+        boolean pvNode = beta - alpha > 1;
+
+        long key = chessMatch.getZobristKey();
+        int hashMove = Move.NONE;
+        long entry = table.probe(key);
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (!pvNode && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        //null move: if passing still fails high, a real move will too
+        if (nullAllowed && !pvNode && !inCheck && depth >= 3 && hasPieces()
+                && Evaluation.evaluate(chessMatch, pawnTable) >= beta) {
+            int reduction = 2 + depth / 4;
+            chessMatch.makeNullMove();
+            int score = -search(depth - 1 - reduction, -beta, -beta + 1, ply + 1, false);
+            chessMatch.undoNullMove();
+            if (aborted) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score >= Search.MATE - Search.MAX_PLY ? beta : score;
+            }
+        }
+
+        int side = chessMatch.getCurrentPlayer().ordinal();
+        MovePicker movePicker = movePickers[ply];
+        movePicker.init(hashMove, killers[ply][0], killers[ply][1], history[side]);
+
+        int originalAlpha = alpha;
+        int bestScore = -Search.INFINITY;
+        int bestMove = Move.NONE;
+        int legalMoves = 0;
+        int move;
+        while ((move = movePicker.next()) != Move.NONE) {
+            if (!chessMatch.makeMove(move)) {
+                continue;
+            }
+            legalMoves++;
+            int score;
+            if (legalMoves == 1) {
+                score = -search(depth - 1, -beta, -alpha, ply + 1, true);
+            } else {
+                score = -search(depth - 1, -alpha - 1, -alpha, ply + 1, true);
+                if (score > alpha && score < beta) {
+                    score = -search(depth - 1, -beta, -alpha, ply + 1, true);
+                }
+            }
+            chessMatch.undoMove(move);
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        if (!Move.isCapture(move)) {
+                            updateKillers(ply, move);
+                            updateHistory(side, move, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        if (legalMoves == 0) {
+            return inCheck ? -Search.MATE + ply : 0;
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > originalAlpha ? TranspositionTable.EXACT
+                : TranspositionTable.UPPER_BOUND;
+        table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    //only captures until the position is quiet, so the evaluation never stops in the middle of an exchange
+    private int quiescence(int alpha, int beta, int ply, boolean inCheck) {
+        pvLength[ply] = ply;
+        if (ply >= Search.MAX_PLY - 1) {
+            return Evaluation.evaluate(chessMatch, pawnTable);
+        }
+        int bestScore = -Search.INFINITY;
+        if (!inCheck) {
+            //stand pat: the side to move is never forced to capture
+            bestScore = Evaluation.evaluate(chessMatch, pawnTable);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+        }
+
+        MovePicker movePicker = movePickers[ply];
+        movePicker.initQuiescence(inCheck, history[chessMatch.getCurrentPlayer().ordinal()]);
+        int legalMoves = 0;
+        int move;
+        while ((move = movePicker.next()) != Move.NONE) {
+            //captures that lose material can't raise a stand pat score
+            if (!inCheck && !StaticExchange.isAtLeast(chessMatch, move, 0)) {
+                continue;
+            }
+            if (!chessMatch.makeMove(move)) {
+                continue;
+            }
+            legalMoves++;
+            if ((++nodes & 2047) == 0 && completedDepth > 0 && search.shouldStop()) {
+                aborted = true;
+            }
+            int score = aborted ? 0 : -quiescence(-beta, -alpha, ply + 1, chessMatch.getCheck());
+            chessMatch.undoMove(move);
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (inCheck && legalMoves == 0) {
+            return -Search.MATE + ply;
+        }
+        return bestScore;
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        int length = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, length - ply - 1);
+        pvLength[ply] = Math.max(length, ply + 1);
+    }
+
+    //the fifty-move rule draws unless the move that reached it gave mate
+    private boolean fiftyMoves() {
+        return chessMatch.getHalfmoveClock() >= ChessMatch.FIFTY_MOVE_PLIES
+                && (!chessMatch.getCheck() || !chessMatch.legalMoves().isEmpty());
+    }
+
+    private boolean hasPieces() {
+        ChessBoard board = chessMatch.getBoard();
+        long pawnsAndKing = board.pieces(chessMatch.getCurrentPlayer(), PieceType.PAWN)
+                | board.pieces(chessMatch.getCurrentPlayer(), PieceType.KING);
+        return (board.pieces(chessMatch.getCurrentPlayer()) & ~pawnsAndKing) != 0;
+    }
+
+    private void updateKillers(int ply, int move) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+
+    private void updateHistory(int side, int move, int depth) {
+        int[][] table = history[side];
+        table[Move.from(move)][Move.to(move)] += depth * depth;
+        if (table[Move.from(move)][Move.to(move)] > HISTORY_LIMIT) {
+            for (int[] row : table) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] /= 2;
+                }
+            }
+        }
+    }
+
+    //mate scores are stored relative to the node, not the root
+    private static int toTable(int score, int ply) {
+        if (score >= Search.MATE - Search.MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -Search.MATE + Search.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= Search.MATE - Search.MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -Search.MATE + Search.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+}
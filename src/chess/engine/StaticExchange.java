@@ -0,0 +1,142 @@
+package chess.engine;
+
+import chess.Attacks;
+import chess.ChessBoard;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import chess.Move;
+import chess.PieceSquareTables;
+import chess.PieceType;
+
+public final class StaticExchange {
+    private static final int KING_VALUE = 20000;
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private StaticExchange() {
+    }
+
+    //material balance for the side to move after the best sequence of recaptures on the target square
+    public static int evaluate(ChessMatch chessMatch, int move) {
+        ChessBoard board = chessMatch.getBoard();
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int[] gain = new int[32];
+        int depth = 0;
+
+        long occupied = board.occupied() ^ (1L << from);
+        gain[0] = capturedValue(board, move);
+        if (Move.flags(move) == Move.EN_PASSANT) {
+            occupied ^= 1L << enPassantSquare(from, to);
+        }
+        long attackers = (board.attackers(to, Color.WHITE, occupied) | board.attackers(to, Color.BLACK, occupied)) & occupied;
+        int attackerValue = value(board.pieceAt(from).getType());
+        Color side = opposite(board.pieceAt(from).getColor());
+
+        while (true) {
+            depth++;
+            gain[depth] = attackerValue - gain[depth - 1];
+            long sideAttackers = attackers & board.pieces(side);
+            if (sideAttackers == 0) {
+                break;
+            }
+            PieceType type = leastValuable(board, side, sideAttackers);
+            //the king can only take last
+            if (type == PieceType.KING && (attackers & board.pieces(opposite(side))) != 0) {
+                break;
+            }
+            occupied ^= Long.lowestOneBit(sideAttackers & board.pieces(side, type));
+            attackers = (attackers | xRays(board, to, occupied)) & occupied;
+            attackerValue = value(type);
+            side = opposite(side);
+        }
+
+        while (--depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+
+    //same answer as evaluate(chessMatch, move) >= threshold, without allocating
+    public static boolean isAtLeast(ChessMatch chessMatch, int move, int threshold) {
+        ChessBoard board = chessMatch.getBoard();
+        int from = Move.from(move);
+        int to = Move.to(move);
+
+        int swap = capturedValue(board, move) - threshold;
+        if (swap < 0) {
+            return false;
+        }
+        swap = value(board.pieceAt(from).getType()) - swap;
+        if (swap <= 0) {
+            return true;
+        }
+
+        long occupied = board.occupied() ^ (1L << from) ^ (1L << to);
+        if (Move.flags(move) == Move.EN_PASSANT) {
+            occupied ^= 1L << enPassantSquare(from, to);
+        }
+        long attackers = board.attackers(to, Color.WHITE, occupied) | board.attackers(to, Color.BLACK, occupied);
+        Color side = board.pieceAt(from).getColor();
+        boolean result = true;
+
+        while (true) {
+            side = opposite(side);
+            attackers &= occupied;
+            long sideAttackers = attackers & board.pieces(side);
+            if (sideAttackers == 0) {
+                break;
+            }
+            result = !result;
+            PieceType type = leastValuable(board, side, sideAttackers);
+            if (type == PieceType.KING) {
+                //taking with the king only works when nothing can take back
+                return (attackers & ~board.pieces(side)) != 0 ? !result : result;
+            }
+            swap = value(type) - swap;
+            if (swap < (result ? 1 : 0)) {
+                break;
+            }
+            occupied ^= Long.lowestOneBit(sideAttackers & board.pieces(side, type));
+            attackers |= xRays(board, to, occupied);
+        }
+        return result;
+    }
+
+    private static int capturedValue(ChessBoard board, int move) {
+        if (Move.flags(move) == Move.EN_PASSANT) {
+            return value(PieceType.PAWN);
+        }
+        ChessPiece victim = board.pieceAt(Move.to(move));
+        return victim == null ? 0 : value(victim.getType());
+    }
+
+    private static PieceType leastValuable(ChessBoard board, Color side, long attackers) {
+        for (PieceType type : TYPES) {
+            if ((attackers & board.pieces(side, type)) != 0) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("No attacker found");
+    }
+
+    //sliders hidden behind pieces that already took part in the exchange
+    private static long xRays(ChessBoard board, int square, long occupied) {
+        long queens = board.pieces(Color.WHITE, PieceType.QUEEN) | board.pieces(Color.BLACK, PieceType.QUEEN);
+        long bishops = board.pieces(Color.WHITE, PieceType.BISHOP) | board.pieces(Color.BLACK, PieceType.BISHOP) | queens;
+        long rooks = board.pieces(Color.WHITE, PieceType.ROOK) | board.pieces(Color.BLACK, PieceType.ROOK) | queens;
+        return (Attacks.bishopAttacks(square, occupied) & bishops) | (Attacks.rookAttacks(square, occupied) & rooks);
+    }
+
+    private static int enPassantSquare(int from, int to) {
+        return ChessBoard.square(ChessBoard.row(from), ChessBoard.column(to));
+    }
+
+    private static int value(PieceType type) {
+        return type == PieceType.KING ? KING_VALUE : PieceSquareTables.value(type);
+    }
+
+    private static Color opposite(Color color) {
+        return color == Color.WHITE ? Color.BLACK : Color.WHITE;
+    }
+}
@@ -0,0 +1,7 @@
+package chess.pgn;
+
+import java.io.IOException;
+
+public interface BatchCallback<T extends BatchResult> {
+    void onBatch(T batch) throws IOException;
+}
@@ -0,0 +1,47 @@
+package chess.pgn;
+
+//what one batch of games came to; the pipeline adds these up for its progress reports
+public class BatchResult {
+    private int games;
+    private int invalidGames;
+    private int unsupportedGames;
+    private long moves;
+
+    public void addGame(int moveCount) {
+        games++;
+        moves += moveCount;
+    }
+
+    public void addInvalid() {
+        games++;
+        invalidGames++;
+    }
+
+    public void addUnsupported() {
+        games++;
+        unsupportedGames++;
+    }
+
+    public void add(BatchResult other) {
+        games += other.games;
+        invalidGames += other.invalidGames;
+        unsupportedGames += other.unsupportedGames;
+        moves += other.moves;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getInvalidGames() {
+        return invalidGames;
+    }
+
+    public int getUnsupportedGames() {
+        return unsupportedGames;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+}
@@ -0,0 +1,170 @@
+package chess.pgn;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//one game as it appears in the file; tags and moves are only decoded when asked for
+public class PgnGame {
+    private final long offset;
+    private final ByteBuffer text;
+    private Map<String, String> tags;
+
+    public PgnGame(long offset, ByteBuffer text) {
+        this.offset = offset;
+        this.text = text;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return text.limit();
+    }
+
+    public String getTag(String name) {
+        return getTags().get(name);
+    }
+
+    public Map<String, String> getTags() {
+        if (tags == null) {
+            tags = Collections.unmodifiableMap(parseTags());
+        }
+        return tags;
+    }
+
+    public String getResult() {
+        String result = getTag("Result");
+        return result != null ? result : "*";
+    }
+
+    //the mainline in SAN, without move numbers, comments, variations, annotations or the result
+    public List<String> getMoves() {
+        List<String> moves = new ArrayList<>();
+        int length = text.limit();
+        int i = movesStart();
+        int variationDepth = 0;
+        while (i < length) {
+            char c = (char) (text.get(i) & 0xFF);
+            if (c == '{') {
+                i = skipPast(i, '}');
+            } else if (c == ';') {
+                i = skipPast(i, '\n');
+            } else if (c == '(') {
+                variationDepth++;
+                i++;
+            } else if (c == ')') {
+                variationDepth--;
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                int start = i;
+                while (i < length && !isDelimiter((char) (text.get(i) & 0xFF))) {
+                    i++;
+                }
+                if (variationDepth == 0) {
+                    String token = token(start, i);
+                    if (token != null) {
+                        moves.add(token);
+                    }
+                }
+            }
+        }
+        return moves;
+    }
+
+    private Map<String, String> parseTags() {
+        Map<String, String> result = new HashMap<>();
+        int length = text.limit();
+        int i = 0;
+        while (i < length) {
+            char c = (char) (text.get(i) & 0xFF);
+            if (c == '[') {
+                int nameStart = ++i;
+                while (i < length && text.get(i) != ' ' && text.get(i) != '"' && text.get(i) != ']') {
+                    i++;
+                }
+                String name = decode(nameStart, i);
+                while (i < length && text.get(i) != '"' && text.get(i) != ']') {
+                    i++;
+                }
+                String value = "";
+                if (i < length && text.get(i) == '"') {
+                    int valueStart = ++i;
+                    while (i < length && !(text.get(i) == '"' && text.get(i - 1) != '\\')) {
+                        i++;
+                    }
+                    value = decode(valueStart, i).replace("\\\"", "\"").replace("\\\\", "\\");
+                }
+                result.put(name, value);
+                i = skipPast(i, '\n');
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private int movesStart() {
+        int length = text.limit();
+        int i = 0;
+        while (i < length) {
+            byte b = text.get(i);
+            if (b == '[') {
+                i = skipPast(i, '\n');
+            } else if (Character.isWhitespace(b)) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    //drops move numbers, NAGs and results; a number glued to its move, as in 12.e4, leaves the move
+    private String token(int start, int end) {
+        char first = (char) (text.get(start) & 0xFF);
+        if (first == '$' || first == '*') {
+            return null;
+        }
+        if (first >= '0' && first <= '9') {
+            if (first == '0' && end - start >= 3 && text.get(start + 1) == '-' && text.get(start + 2) == '0') {
+                return decode(start, end);
+            }
+            int i = start;
+            while (i < end && (Character.isDigit(text.get(i)) || text.get(i) == '.')) {
+                i++;
+            }
+            if (i == end || text.get(i - 1) != '.') {
+                return null;
+            }
+            start = i;
+        }
+        return decode(start, end);
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '{' || c == '(' || c == ')' || c == ';';
+    }
+
+    private int skipPast(int i, char end) {
+        while (i < text.limit() && text.get(i) != end) {
+            i++;
+        }
+        return i + 1;
+    }
+
+    private String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        text.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,80 @@
+package chess.pgn;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+//reads a PGN file in batches, processes each batch on a fork-join pool and hands the results back in file order
+public class PgnPipeline<T extends BatchResult> {
+    private static final int BATCH_SIZE = 1024;
+    //batches read ahead of the pool; this bounds how many games are held at once
+    private static final int MAX_PENDING_BATCHES = 4;
+    private static final long REPORT_INTERVAL_MILLIS = 1000;
+
+    private final ForkJoinPool pool;
+    private final Function<List<PgnGame>, T> processor;
+
+    public PgnPipeline(ForkJoinPool pool, Function<List<PgnGame>, T> processor) {
+        this.pool = pool;
+        this.processor = processor;
+    }
+
+    //the processor runs on the pool; the callback, if any, runs on this thread once per batch
+    public ReplayProgress run(PgnReader reader, BatchCallback<T> callback, ReplayListener listener)
+            throws IOException {
+        long start = System.nanoTime();
+        long lastReport = start;
+        BatchResult totals = new BatchResult();
+
+        Deque<ForkJoinTask<T>> pending = new ArrayDeque<>();
+        List<PgnGame> batch = new ArrayList<>(BATCH_SIZE);
+        PgnGame game;
+        while (true) {
+            game = reader.next();
+            if (game != null) {
+                batch.add(game);
+            }
+            if (batch.size() == BATCH_SIZE || (game == null && !batch.isEmpty())) {
+                List<PgnGame> games = batch;
+                pending.add(pool.submit(() -> processor.apply(games)));
+                batch = new ArrayList<>(BATCH_SIZE);
+                if (pending.size() >= MAX_PENDING_BATCHES) {
+                    finish(pending.poll().join(), callback, totals);
+                }
+            }
+            if (game == null) {
+                break;
+            }
+            long now = System.nanoTime();
+            if (listener != null && now - lastReport >= REPORT_INTERVAL_MILLIS * 1_000_000) {
+                lastReport = now;
+                listener.onProgress(progress(reader.getPosition(), reader.getSize(), totals, start));
+            }
+        }
+        while (!pending.isEmpty()) {
+            finish(pending.poll().join(), callback, totals);
+        }
+        ReplayProgress result = progress(reader.getSize(), reader.getSize(), totals, start);
+        if (listener != null) {
+            listener.onProgress(result);
+        }
+        return result;
+    }
+
+    private void finish(T batch, BatchCallback<T> callback, BatchResult totals) throws IOException {
+        if (callback != null) {
+            callback.onBatch(batch);
+        }
+        totals.add(batch);
+    }
+
+    private static ReplayProgress progress(long bytesRead, long totalBytes, BatchResult totals, long start) {
+        return new ReplayProgress(bytesRead, totalBytes, totals.getGames(), totals.getInvalidGames(),
+                totals.getUnsupportedGames(), totals.getMoves(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,118 @@
+package chess.pgn;
+
+import chess.exceptions.ChessException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//maps the file a window at a time, so memory stays bounded however large the archive is
+public class PgnReader implements Closeable {
+    public static final int DEFAULT_WINDOW = 64 << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    public PgnReader(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW);
+    }
+
+    public PgnReader(Path path, int windowSize) throws IOException {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    //bytes consumed so far
+    public long getPosition() {
+        return position;
+    }
+
+    //the next game, or null at the end of the file; its text stays valid after later calls
+    public PgnGame next() throws IOException {
+        while (true) {
+            if (window == null || position >= windowStart + window.limit()) {
+                if (position >= size) {
+                    return null;
+                }
+                map(position);
+            }
+            int start = skipWhitespace((int) (position - windowStart));
+            if (start == window.limit()) {
+                position = windowStart + start;
+                continue;
+            }
+            int end = findGameEnd(start);
+            boolean atEndOfFile = windowStart + window.limit() == size;
+            if (end < 0 && !atEndOfFile) {
+                //the game runs past the window, map again starting at the game
+                if (start == 0) {
+                    throw new ChessException("Game at offset " + windowStart + " is larger than " + windowSize + " bytes");
+                }
+                position = windowStart + start;
+                map(position);
+                continue;
+            }
+            if (end < 0) {
+                end = window.limit();
+            }
+            position = windowStart + end;
+            return new PgnGame(windowStart + start, window.slice(start, end - start).asReadOnlyBuffer());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+    }
+
+    private int skipWhitespace(int i) {
+        while (i < window.limit() && Character.isWhitespace(window.get(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    //a game ends where a tag line follows its movetext; returns -1 if that's not inside the window
+    private int findGameEnd(int start) {
+        int limit = window.limit();
+        boolean lineStart = true;
+        boolean inMoves = false;
+        boolean inComment = false;
+        for (int i = start; i < limit; i++) {
+            byte b = window.get(i);
+            if (inComment) {
+                inComment = b != '}';
+            } else if (lineStart && b == '[' && inMoves) {
+                return i;
+            } else if (b == '{') {
+                inComment = true;
+                inMoves = true;
+            } else if (lineStart && b != '[' && !Character.isWhitespace(b)) {
+                inMoves = true;
+            }
+            lineStart = b == '\n' || (lineStart && (b == ' ' || b == '\t' || b == '\r'));
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,88 @@
+package chess.pgn;
+
+import chess.ChessMatch;
+import chess.MoveList;
+import chess.exceptions.ChessException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+//replays every game of a PGN file on a fork-join pool, checking each move against the rules
+public class PgnReplay {
+    private static final int SPLIT_THRESHOLD = 16;
+
+    private final PgnPipeline<BatchResult> pipeline;
+
+    public PgnReplay(ForkJoinPool pool) {
+        this.pipeline = new PgnPipeline<>(pool, games -> new ReplayTask(games, 0, games.size()).invoke());
+    }
+
+    public ReplayProgress replay(Path path, ReplayListener listener) throws IOException {
+        try (PgnReader reader = new PgnReader(path)) {
+            return pipeline.run(reader, null, listener);
+        }
+    }
+
+    //plays the game from its start position, or its FEN tag, and returns the final position
+    public static ChessMatch replay(PgnGame game) {
+        return replay(game, game.getMoves(), new MoveList());
+    }
+
+    private static ChessMatch replay(PgnGame game, List<String> sanMoves, MoveList scratch) {
+        String fen = game.getTag("FEN");
+        ChessMatch chessMatch = fen != null ? new ChessMatch(fen) : new ChessMatch();
+        for (int i = 0; i < sanMoves.size(); i++) {
+            chessMatch.playMove(San.parse(chessMatch, sanMoves.get(i), scratch));
+        }
+        return chessMatch;
+    }
+
+    private static void replayGame(PgnGame game, MoveList scratch, BatchResult result) {
+        try {
+            List<String> sanMoves = game.getMoves();
+            for (String san : sanMoves) {
+                if (San.isPromotion(san)) {
+                    result.addUnsupported();
+                    return;
+                }
+            }
+            replay(game, sanMoves, scratch);
+            result.addGame(sanMoves.size());
+        } catch (ChessException e) {
+            result.addInvalid();
+        }
+    }
+
+    private static class ReplayTask extends RecursiveTask<BatchResult> {
+        private final List<PgnGame> batch;
+        private final int from;
+        private final int to;
+
+        ReplayTask(List<PgnGame> batch, int from, int to) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BatchResult compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                MoveList scratch = new MoveList();
+                BatchResult result = new BatchResult();
+                for (int i = from; i < to; i++) {
+                    replayGame(batch.get(i), scratch, result);
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            ReplayTask second = new ReplayTask(batch, middle, to);
+            second.fork();
+            BatchResult result = new ReplayTask(batch, from, middle).compute();
+            result.add(second.join());
+            return result;
+        }
+    }
+}
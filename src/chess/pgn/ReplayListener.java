@@ -0,0 +1,5 @@
+package chess.pgn;
+
+public interface ReplayListener {
+    void onProgress(ReplayProgress progress);
+}
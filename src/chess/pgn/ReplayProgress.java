@@ -0,0 +1,75 @@
+package chess.pgn;
+
+public class ReplayProgress {
+    private final long bytesRead;
+    private final long totalBytes;
+    private final long games;
+    private final long invalidGames;
+    private final long unsupportedGames;
+    private final long moves;
+    private final long timeMillis;
+
+    public ReplayProgress(long bytesRead, long totalBytes, long games, long invalidGames, long unsupportedGames,
+                          long moves, long timeMillis) {
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+        this.games = games;
+        this.invalidGames = invalidGames;
+        this.unsupportedGames = unsupportedGames;
+        this.moves = moves;
+        this.timeMillis = timeMillis;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getValidGames() {
+        return games - invalidGames - unsupportedGames;
+    }
+
+    //games with an illegal, ambiguous or unreadable move
+    public long getInvalidGames() {
+        return invalidGames;
+    }
+
+    //games that need a rule the match doesn't have yet, such as promotion
+    public long getUnsupportedGames() {
+        return unsupportedGames;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public double getPercent() {
+        return totalBytes == 0 ? 100.0 : bytesRead * 100.0 / totalBytes;
+    }
+
+    public long getGamesPerSecond() {
+        return games * 1000 / Math.max(1, timeMillis);
+    }
+
+    public double getMegabytesPerSecond() {
+        return bytesRead / (1024.0 * 1024.0) / (Math.max(1, timeMillis) / 1000.0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%5.1f%% %d games (%d valid, %d invalid, %d unsupported) %d moves %d games/s %.1f MB/s",
+                getPercent(), games, getValidGames(), invalidGames, unsupportedGames, moves,
+                getGamesPerSecond(), getMegabytesPerSecond());
+    }
+}
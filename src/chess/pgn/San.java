@@ -0,0 +1,130 @@
+package chess.pgn;
+
+import chess.ChessBoard;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+import chess.PieceType;
+import chess.exceptions.ChessException;
+
+//standard algebraic notation, e.g. e4, Nbd7, exd5, O-O-O, Qh4+
+public final class San {
+    private static final String PIECE_LETTERS = "NBRQK";
+    private static final PieceType[] PIECE_TYPES = {
+            PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN, PieceType.KING
+    };
+
+    private San() {
+    }
+
+    //promotions are recognized but can't be played, the rules have no promotion yet
+    public static boolean isPromotion(String san) {
+        int end = stripSuffix(san);
+        return san.indexOf('=') >= 0 || (end > 0 && "QRBN".indexOf(san.charAt(end - 1)) >= 0);
+    }
+
+    public static int parse(ChessMatch chessMatch, String san) {
+        return parse(chessMatch, san, new MoveList());
+    }
+
+    //moves is scratch space for the legal moves, so callers can reuse one list for a whole game
+    public static int parse(ChessMatch chessMatch, String san, MoveList moves) {
+        if (isPromotion(san)) {
+            throw new ChessException("Promotions are not supported: " + san);
+        }
+        int end = stripSuffix(san);
+        chessMatch.legalMoves(moves);
+        int kingSquare = chessMatch.getKingSquare(chessMatch.getCurrentPlayer());
+        if (isCastling(san, end, 5)) {
+            return castle(san, moves, kingSquare, kingSquare - 2);
+        }
+        if (isCastling(san, end, 3)) {
+            return castle(san, moves, kingSquare, kingSquare + 2);
+        }
+
+        int start = 0;
+        PieceType type = PieceType.PAWN;
+        if (end > 0 && PIECE_LETTERS.indexOf(san.charAt(0)) >= 0) {
+            type = PIECE_TYPES[PIECE_LETTERS.indexOf(san.charAt(0))];
+            start = 1;
+        }
+        if (end - start < 2) {
+            throw new ChessException("Invalid move: " + san);
+        }
+        int target = square(san, end - 2);
+        int fromColumn = -1;
+        int fromRow = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromColumn = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRow = ChessBoard.SIZE - (c - '0');
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw new ChessException("Invalid move: " + san);
+            }
+        }
+
+        ChessBoard board = chessMatch.getBoard();
+        int found = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Move.from(move);
+            ChessPiece piece = board.pieceAt(from);
+            if (Move.to(move) != target || piece.getType() != type
+                    || (fromColumn >= 0 && ChessBoard.column(from) != fromColumn)
+                    || (fromRow >= 0 && ChessBoard.row(from) != fromRow)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                throw new ChessException("Ambiguous move: " + san);
+            }
+            found = move;
+        }
+        if (found == Move.NONE) {
+            throw new ChessException("Illegal move: " + san);
+        }
+        return found;
+    }
+
+    private static int castle(String san, MoveList moves, int from, int to) {
+        int move = moves.find(from, to);
+        if (move == Move.NONE || !Move.isCastling(move)) {
+            throw new ChessException("Illegal move: " + san);
+        }
+        return move;
+    }
+
+    //O-O and O-O-O, also written with zeros
+    private static boolean isCastling(String san, int end, int length) {
+        if (end != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = san.charAt(i);
+            if (i % 2 == 1 ? c != '-' : c != 'O' && c != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int square(String san, int index) {
+        char column = san.charAt(index);
+        char row = san.charAt(index + 1);
+        if (column < 'a' || column > 'h' || row < '1' || row > '8') {
+            throw new ChessException("Invalid move: " + san);
+        }
+        return ChessBoard.square(ChessBoard.SIZE - (row - '0'), column - 'a');
+    }
+
+    //check, mate and annotation marks carry no move information
+    private static int stripSuffix(String san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return end;
+    }
+}
@@ -1,18 +1,16 @@
 package chess.pieces;
 
-import boardgame.Board;
-import boardgame.Position;
-import chess.ChessMatch;
+import chess.Attacks;
+import chess.ChessBoard;
 import chess.ChessPiece;
 import chess.Color;
+import chess.Move;
+import chess.PieceType;
 
 public class King extends ChessPiece {
 
-    private ChessMatch chessMatch;
-
-    public King(ChessMatch chessMatch, Board board, Color color) {
+    public King(ChessBoard board, Color color) {
         super(board, color);
-        this.chessMatch = chessMatch;
     }
 
     @Override
@@ -20,92 +18,53 @@ public class King extends ChessPiece {
         return "K";
     }
 
-    private boolean canMove(Position position) {
-        ChessPiece piece = (ChessPiece) getBoard().piece(position);
-        return piece == null || piece.getColor() != getColor();
+    @Override
+    public PieceType getType() {
+        return PieceType.KING;
     }
 
-    private boolean testRookCastling(Position position) {
-        ChessPiece piece = (ChessPiece) getBoard().piece(position);
+    private boolean testRookCastling(int square) {
+        ChessPiece piece = getChessBoard().pieceAt(square);
         return piece instanceof Rook && piece.getColor() == getColor() && piece.getMoveCount() == 0;
     }
 
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] possibleMoves = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position aux = new Position(0, 0);
-
-        //above
-        aux.setValues(position.getRow() - 1, position.getColumn());
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
+    protected int moveFlags(int from, int to) {
+        if (to == from + 2) {
+            return Move.KING_CASTLE;
         }
-
-        //below
-        aux.setValues(position.getRow() + 1, position.getColumn());
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        //left
-        aux.setValues(position.getRow(), position.getColumn() - 1);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        //right
-        aux.setValues(position.getRow(), position.getColumn() + 1);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        //northwest
-        aux.setValues(position.getRow() - 1, position.getColumn() - 1);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        //northeast
-        aux.setValues(position.getRow() - 1, position.getColumn() + 1);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        //southwest
-        aux.setValues(position.getRow() + 1, position.getColumn() - 1);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
+        if (to == from - 2) {
+            return Move.QUEEN_CASTLE;
         }
+        return super.moveFlags(from, to);
+    }
 
-        //southeast
-        aux.setValues(position.getRow() + 1, position.getColumn() + 1);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
+    @Override
+    public long moves() {
+        int square = getSquare();
+        long moves = Attacks.kingAttacks(square) & ~friendlyPieces();
 
         //special move castling
-        if (getMoveCount() == 0 && !chessMatch.getCheck()) {
-            //special move castling kins side
-            Position kingsCastlingRook = new Position(position.getRow(), position.getColumn() + 3);
-            if (testRookCastling(kingsCastlingRook)) {
-                Position p1 = new Position(position.getRow(), position.getColumn() + 1);
-                Position p2 = new Position(position.getRow(), position.getColumn() + 2);
-                if (getBoard().piece(p1) == null && getBoard().piece(p2) == null) {
-                    possibleMoves[position.getRow()][position.getColumn() + 2] = true;
+        Color opponent = getColor() == Color.WHITE ? Color.BLACK : Color.WHITE;
+        if (getMoveCount() == 0 && !getChessBoard().isSquareAttacked(square, opponent)) {
+            int column = ChessBoard.column(square);
+            long occupied = getChessBoard().occupied();
+            //special move castling kings side
+            if (column + 3 < ChessBoard.SIZE && testRookCastling(square + 3)) {
+                long between = (1L << (square + 1)) | (1L << (square + 2));
+                if ((occupied & between) == 0 && !getChessBoard().isSquareAttacked(square + 1, opponent)) {
+                    moves |= 1L << (square + 2);
                 }
             }
             //special move castling queens side
-            Position queensCastlingRook = new Position(position.getRow(), position.getColumn() - 4);
-            if (testRookCastling(queensCastlingRook)) {
-                Position p1 = new Position(position.getRow(), position.getColumn() - 1);
-                Position p2 = new Position(position.getRow(), position.getColumn() - 2);
-                Position p3 = new Position(position.getRow(), position.getColumn() - 3);
-                if (getBoard().piece(p1) == null && getBoard().piece(p2) == null && getBoard().piece(p3) == null) {
-                    possibleMoves[position.getRow()][position.getColumn() - 2] = true;
+            if (column - 4 >= 0 && testRookCastling(square - 4)) {
+                long between = (1L << (square - 1)) | (1L << (square - 2)) | (1L << (square - 3));
+                if ((occupied & between) == 0 && !getChessBoard().isSquareAttacked(square - 1, opponent)) {
+                    moves |= 1L << (square - 2);
                 }
             }
         }
 
-        return possibleMoves;
+        return moves;
     }
 }
@@ -1,13 +1,14 @@
 package chess.pieces;
 
-import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
+import chess.ChessBoard;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
 
 public class Knight extends ChessPiece {
 
-    public Knight(Board board, Color color) {
+    public Knight(ChessBoard board, Color color) {
         super(board, color);
     }
 
@@ -16,56 +17,13 @@ public class Knight extends ChessPiece {
         return "N";
     }
 
-    private boolean canMove(Position position) {
-        ChessPiece piece = (ChessPiece) getBoard().piece(position);
-        return piece == null || piece.getColor() != getColor();
+    @Override
+    public PieceType getType() {
+        return PieceType.KNIGHT;
     }
 
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] possibleMoves = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position aux = new Position(0 ,0);
-
-        aux.setValues(position.getRow() - 1, position.getColumn() - 2);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        aux.setValues(position.getRow() - 2, position.getColumn() - 1);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        aux.setValues(position.getRow() - 1, position.getColumn() + 2);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        aux.setValues(position.getRow() - 2, position.getColumn() + 1);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        aux.setValues(position.getRow() + 1, position.getColumn() + 2);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        aux.setValues(position.getRow() + 2, position.getColumn() + 1);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        aux.setValues(position.getRow() + 1, position.getColumn() - 2);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        aux.setValues(position.getRow() + 2, position.getColumn() - 1);
-        if (getBoard().positionExists(aux) && canMove(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        return possibleMoves;
+    public long moves() {
+        return Attacks.knightAttacks(getSquare()) & ~friendlyPieces();
     }
 }
@@ -1,16 +1,18 @@
 package chess.pieces;
 
-import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
+import chess.ChessBoard;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
+import chess.Move;
+import chess.PieceType;
 
 public class Pawn extends ChessPiece {
 
     private ChessMatch chessMatch;
 
-    public Pawn(ChessMatch chessMatch, Board board, Color color) {
+    public Pawn(ChessMatch chessMatch, ChessBoard board, Color color) {
         super(board, color);
         this.chessMatch = chessMatch;
     }
@@ -21,73 +23,35 @@ public class Pawn extends ChessPiece {
     }
 
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] possibleMoves = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position aux = new Position(0, 0);
+    public PieceType getType() {
+        return PieceType.PAWN;
+    }
 
-        if (getColor() == Color.WHITE) {
-            aux.setValues(position.getRow() - 1, position.getColumn());
-            if (getBoard().positionExists(aux) && !getBoard().thereIsAPiece(aux)) {
-                possibleMoves[aux.getRow()][aux.getColumn()] = true;
-            }
-            aux.setValues(position.getRow() - 2, position.getColumn());
-            Position aux2 = new Position(position.getRow() - 1, position.getColumn());
-            if (getBoard().positionExists(aux) && !getBoard().thereIsAPiece(aux) && getBoard().positionExists(aux2) &&
-                    !getBoard().thereIsAPiece(aux2) && getMoveCount() == 0) {
-                possibleMoves[aux.getRow()][aux.getColumn()] = true;
-            }
-            aux.setValues(position.getRow() - 1, position.getColumn() - 1);
-            if (getBoard().positionExists(aux) && isThereOpponentPiece(aux)) {
-                possibleMoves[aux.getRow()][aux.getColumn()] = true;
-            }
-            aux.setValues(position.getRow() - 1, position.getColumn() + 1);
-            if (getBoard().positionExists(aux) && isThereOpponentPiece(aux)) {
-                possibleMoves[aux.getRow()][aux.getColumn()] = true;
-            }
-            // Special move En passant
-            if (position.getRow() == 3) {
-                Position left = new Position(position.getRow(), position.getColumn() - 1);
-                if (getBoard().positionExists(left) && isThereOpponentPiece(left) && getBoard().piece(left) == chessMatch.getEnPassant()) {
-                    possibleMoves[left.getRow() - 1][left.getColumn()] = true;
-                }
-                Position right = new Position(position.getRow(), position.getColumn() + 1);
-                if (getBoard().positionExists(right) && isThereOpponentPiece(right) && getBoard().piece(right) == chessMatch.getEnPassant()) {
-                    possibleMoves[right.getRow() - 1][right.getColumn()] = true;
-                }
-            }
+    @Override
+    protected int moveFlags(int from, int to) {
+        if (getChessBoard().pieceAt(to) != null) {
+            return Move.CAPTURE;
+        }
+        if (ChessBoard.column(from) != ChessBoard.column(to)) {
+            return Move.EN_PASSANT;
         }
-        else {
-            aux.setValues(position.getRow() + 1, position.getColumn());
-            if (getBoard().positionExists(aux) && !getBoard().thereIsAPiece(aux)) {
-                possibleMoves[aux.getRow()][aux.getColumn()] = true;
-            }
-            aux.setValues(position.getRow() + 2, position.getColumn());
-            Position aux2 = new Position(position.getRow() + 1, position.getColumn());
-            if (getBoard().positionExists(aux) && !getBoard().thereIsAPiece(aux) && getBoard().positionExists(aux2) &&
-                    !getBoard().thereIsAPiece(aux2) && getMoveCount() == 0) {
-                possibleMoves[aux.getRow()][aux.getColumn()] = true;
-            }
-            aux.setValues(position.getRow() + 1, position.getColumn() - 1);
-            if (getBoard().positionExists(aux) && isThereOpponentPiece(aux)) {
-                possibleMoves[aux.getRow()][aux.getColumn()] = true;
-            }
-            aux.setValues(position.getRow() + 1, position.getColumn() + 1);
-            if (getBoard().positionExists(aux) && isThereOpponentPiece(aux)) {
-                possibleMoves[aux.getRow()][aux.getColumn()] = true;
-            }
-            // Special move En passant
-            if (position.getRow() == 4) {
-                Position left = new Position(position.getRow(), position.getColumn() - 1);
-                if (getBoard().positionExists(left) && isThereOpponentPiece(left) && getBoard().piece(left) == chessMatch.getEnPassant()) {
-                    possibleMoves[left.getRow() + 1][left.getColumn()] = true;
-                }
-                Position right = new Position(position.getRow(), position.getColumn() + 1);
-                if (getBoard().positionExists(right) && isThereOpponentPiece(right) && getBoard().piece(right) == chessMatch.getEnPassant()) {
-                    possibleMoves[right.getRow() + 1][right.getColumn()] = true;
-                }
-            }
+        return to == from + 16 || to == from - 16 ? Move.DOUBLE_PAWN_PUSH : Move.QUIET;
+    }
+
+    @Override
+    public long moves() {
+        int square = getSquare();
+        long empty = ~getChessBoard().occupied();
+        long attacks = Attacks.pawnAttacks(getColor(), square);
+        long moves = attacks & opponentPieces() | Attacks.pawnPushes(getColor(), square, empty);
+
+        // Special move En passant
+        ChessPiece enPassant = chessMatch.getEnPassant();
+        if (enPassant != null && enPassant.getColor() != getColor() && enPassant.getSquare() >= 0) {
+            int target = getColor() == Color.WHITE ? enPassant.getSquare() - 8 : enPassant.getSquare() + 8;
+            moves |= attacks & (1L << target);
         }
 
-        return possibleMoves;
+        return moves;
     }
 }
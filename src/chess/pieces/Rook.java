@@ -1,13 +1,14 @@
 package chess.pieces;
 
-import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
+import chess.ChessBoard;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
 
 public class Rook extends ChessPiece {
 
-    public Rook(Board board, Color color) {
+    public Rook(ChessBoard board, Color color) {
         super(board, color);
     }
 
@@ -17,50 +18,12 @@ public class Rook extends ChessPiece {
     }
 
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] possibleMoves = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position aux = new Position(0, 0);
-
-        //above
-       aux.setValues(position.getRow() - 1, position.getColumn());
-       while (getBoard().positionExists(aux) && !getBoard().thereIsAPiece(aux)) {
-           possibleMoves[aux.getRow()][aux.getColumn()] = true;
-           aux.setRow(aux.getRow() - 1);
-       }
-       if (getBoard().positionExists(aux) && isThereOpponentPiece(aux)) {
-           possibleMoves[aux.getRow()][aux.getColumn()] = true;
-       }
-
-       //left
-        aux.setValues(position.getRow(), position.getColumn() - 1);
-       while (getBoard().positionExists(aux) && !getBoard().thereIsAPiece(aux) ) {
-           possibleMoves[aux.getRow()][aux.getColumn()] = true;
-           aux.setColumn(aux.getColumn() - 1);
-       }
-       if (getBoard().positionExists(aux) && isThereOpponentPiece(aux)) {
-           possibleMoves[aux.getRow()][aux.getColumn()] = true;
-       }
-
-       //right
-        aux.setValues(position.getRow(), position.getColumn() + 1);
-        while (getBoard().positionExists(aux) && !getBoard().thereIsAPiece(aux) ) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-            aux.setColumn(aux.getColumn() + 1);
-        }
-        if (getBoard().positionExists(aux) && isThereOpponentPiece(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
-
-        //below
-        aux.setValues(position.getRow() + 1, position.getColumn());
-        while (getBoard().positionExists(aux) && !getBoard().thereIsAPiece(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-            aux.setRow(aux.getRow() + 1);
-        }
-        if (getBoard().positionExists(aux) && isThereOpponentPiece(aux)) {
-            possibleMoves[aux.getRow()][aux.getColumn()] = true;
-        }
+    public PieceType getType() {
+        return PieceType.ROOK;
+    }
 
-        return possibleMoves;
+    @Override
+    public long moves() {
+        return Attacks.rookAttacks(getSquare(), getChessBoard().occupied()) & ~friendlyPieces();
     }
 }
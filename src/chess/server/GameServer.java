@@ -0,0 +1,205 @@
+package chess.server;
+
+import boardgame.exceptions.BoardException;
+import chess.exceptions.ChessException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+//hosts many games over a line protocol, one request and one response line at a time:
+//  NEW              -> OK <id>
+//  MOVE <id> e2e4   -> OK [CHECK|<game result>]
+//  MOVES <id>       -> OK <legal moves>
+//  FEN <id>         -> OK <fen>
+//  STATE <id>       -> OK <snapshot>, read without locking the game
+//  END <id>         -> OK
+//  QUIT             closes the connection
+//failures answer ERR <message> and leave the connection open; a game is dropped once it reaches a final result
+//or the connection that created it closes
+public class GameServer implements Closeable {
+    public static final int DEFAULT_PORT = 7878;
+
+    private final ServerSocket serverSocket;
+    private final SessionMap sessions;
+    private final ExecutorService connections;
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicLong moveCount = new AtomicLong();
+    private final Thread acceptor;
+
+    public GameServer(int port, int stripes) throws IOException {
+        this.serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(port), 1024);
+        this.sessions = new SessionMap(stripes);
+        //a blocking thread per connection; Java 17 has no virtual threads, so idle
+        //connections cost a platform thread each and games are multiplexed over connections instead
+        this.connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "game-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.acceptor = new Thread(this::accept, "game-acceptor");
+    }
+
+    public void start() {
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getGameCount() {
+        return sessions.size();
+    }
+
+    public long getMoveCount() {
+        return moveCount.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        connections.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                sockets.add(socket);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        //games this connection created and hasn't ended; only this connection's thread touches the set
+        Set<Long> owned = new HashSet<>();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.equals("QUIT")) {
+                    break;
+                }
+                out.write(handle(line, owned));
+                out.write('\n');
+                //requests are answered one at a time, so flush only once the client has nothing queued
+                if (!in.ready()) {
+                    out.flush();
+                }
+            }
+        } catch (SocketException e) {
+            //the client went away or the server is closing
+        } catch (IOException e) {
+            System.err.println("Connection failed: " + e.getMessage());
+        } finally {
+            sockets.remove(socket);
+            for (long id : owned) {
+                sessions.remove(id);
+            }
+        }
+    }
+
+    String handle(String line, Set<Long> owned) {
+        String[] parts = line.trim().split(" +");
+        try {
+            switch (parts[0]) {
+                case "NEW" -> {
+                    GameSession session = new GameSession(nextId.getAndIncrement());
+                    sessions.put(session);
+                    owned.add(session.getId());
+                    return "OK " + session.getId();
+                }
+                case "MOVE" -> {
+                    expectArguments(parts, 2);
+                    GameSession session = session(parts[1]);
+                    String status = session.move(parts[2]);
+                    moveCount.incrementAndGet();
+                    if (session.isOver()) {
+                        end(session.getId(), owned);
+                    }
+                    return status.isEmpty() ? "OK" : "OK " + status;
+                }
+                case "MOVES" -> {
+                    expectArguments(parts, 1);
+                    return "OK " + session(parts[1]).legalMoves();
+                }
+                case "FEN" -> {
+                    expectArguments(parts, 1);
+                    return "OK " + session(parts[1]).toFen();
+                }
+                case "STATE" -> {
+                    expectArguments(parts, 1);
+                    return "OK " + session(parts[1]).getSnapshot();
+                }
+                case "END" -> {
+                    expectArguments(parts, 1);
+                    if (!end(parseId(parts[1]), owned)) {
+                        return "ERR Unknown game " + parts[1];
+                    }
+                    return "OK";
+                }
+                default -> {
+                    return "ERR Unknown command " + parts[0];
+                }
+            }
+        } catch (BoardException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    private boolean end(long id, Set<Long> owned) {
+        owned.remove(id);
+        return sessions.remove(id) != null;
+    }
+
+    private GameSession session(String id) {
+        GameSession session = sessions.get(parseId(id));
+        if (session == null) {
+            throw new ChessException("Unknown game " + id);
+        }
+        return session;
+    }
+
+    private static long parseId(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new ChessException("Invalid game id " + id);
+        }
+    }
+
+    private static void expectArguments(String[] parts, int count) {
+        if (parts.length != count + 1) {
+            throw new ChessException(parts[0] + " expects " + count + " argument(s)");
+        }
+    }
+}
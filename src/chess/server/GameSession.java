@@ -0,0 +1,64 @@
+package chess.server;
+
+import chess.ChessMatch;
+import chess.ChessPosition;
+import chess.Move;
+import chess.MoveList;
+import chess.PositionSnapshot;
+import chess.exceptions.ChessException;
+
+//one hosted game; every access goes through the game's own monitor, so games never wait on each other
+public class GameSession {
+    private final long id;
+    private final ChessMatch chessMatch = new ChessMatch();
+    private final MoveList moves = new MoveList();
+
+    public GameSession(long id) {
+        this.id = id;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    //source and target squares such as e2e4; returns the game result once it is over, otherwise CHECK or an empty string
+    public synchronized String move(String move) {
+        if (move.length() != 4) {
+            throw new ChessException("Moves are given as source and target squares, e.g. e2e4");
+        }
+        chessMatch.performChessMove(new ChessPosition(move.charAt(0), move.charAt(1) - '0'),
+                new ChessPosition(move.charAt(2), move.charAt(3) - '0'));
+        if (isOver()) {
+            return chessMatch.getResult().name();
+        }
+        return chessMatch.getCheck() ? "CHECK" : "";
+    }
+
+    public synchronized String legalMoves() {
+        if (isOver()) {
+            return "";
+        }
+        chessMatch.legalMoves(moves);
+        StringBuilder sb = new StringBuilder(moves.size() * 5);
+        for (int i = 0; i < moves.size(); i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(Move.toString(moves.get(i)));
+        }
+        return sb.toString();
+    }
+
+    //spectators read the published snapshot and never wait for the game's monitor
+    public PositionSnapshot getSnapshot() {
+        return chessMatch.getSnapshot();
+    }
+
+    public synchronized String toFen() {
+        return chessMatch.toFen();
+    }
+
+    public synchronized boolean isOver() {
+        return chessMatch.getResult().isOver();
+    }
+}
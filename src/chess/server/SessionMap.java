@@ -0,0 +1,65 @@
+package chess.server;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//sessions spread over independently locked stripes, so lookups for different games rarely contend
+public class SessionMap {
+    private final Stripe[] stripes;
+    private final int mask;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public SessionMap(int stripeCount) {
+        if (stripeCount < 1 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("The stripe count must be a power of two");
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.mask = stripeCount - 1;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public GameSession get(long id) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            return stripe.sessions.get(id);
+        }
+    }
+
+    public void put(GameSession session) {
+        Stripe stripe = stripe(session.getId());
+        synchronized (stripe) {
+            if (stripe.sessions.put(session.getId(), session) == null) {
+                size.incrementAndGet();
+            }
+        }
+    }
+
+    public GameSession remove(long id) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            GameSession session = stripe.sessions.remove(id);
+            if (session != null) {
+                size.decrementAndGet();
+            }
+            return session;
+        }
+    }
+
+    private Stripe stripe(long id) {
+        //ids are sequential, so mix the bits before picking a stripe
+        long h = id * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & mask];
+    }
+
+    //one lock and the sessions it guards
+    private static final class Stripe {
+        private final Map<Long, GameSession> sessions = new HashMap<>();
+    }
+}
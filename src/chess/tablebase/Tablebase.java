@@ -0,0 +1,141 @@
+package chess.tablebase;
+
+import chess.ChessBoard;
+import chess.ChessMatch;
+import chess.Color;
+import chess.PieceType;
+import chess.exceptions.ChessException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//a generated tablebase file, mapped read-only; entries are 0 for a draw and plies to mate + 1 otherwise
+public class Tablebase implements Closeable {
+    static final int MAGIC = 0x4A435442;
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int SIGNATURE_BYTES = 8;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final TablebaseIndex index;
+    private final int bits;
+    private final long mask;
+    private final long sideBytes;
+
+    private Tablebase(FileChannel channel, MappedByteBuffer data, TablebaseIndex index, int bits) {
+        this.channel = channel;
+        this.data = data;
+        this.index = index;
+        this.bits = bits;
+        this.mask = (1L << bits) - 1;
+        this.sideBytes = words(index.size(), bits) * Long.BYTES;
+    }
+
+    public static Tablebase open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getShort(4) != VERSION) {
+                throw new ChessException("Not a tablebase file: " + path);
+            }
+            int bits = data.getShort(6);
+            StringBuilder signature = new StringBuilder();
+            for (int i = 0; i < SIGNATURE_BYTES && data.get(12 + i) != 0; i++) {
+                signature.append((char) data.get(12 + i));
+            }
+            TablebaseIndex index = new TablebaseIndex(signature.toString());
+            if (data.getInt(8) != index.size() || channel.size() < HEADER_BYTES + 2 * words(index.size(), bits) * Long.BYTES) {
+                throw new ChessException("Truncated tablebase file: " + path);
+            }
+            return new Tablebase(channel, data, index, bits);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public String getSignature() {
+        return index.getSignature();
+    }
+
+    //null when the position isn't covered: other material, or castling still possible
+    public TablebaseResult probe(ChessMatch chessMatch) {
+        if (chessMatch.getCastlingRights() != 0) {
+            return null;
+        }
+        ChessBoard board = chessMatch.getBoard();
+        Color strong = matches(board, Color.WHITE) ? Color.WHITE : matches(board, Color.BLACK) ? Color.BLACK : null;
+        if (strong == null) {
+            return null;
+        }
+        Color weak = strong == Color.WHITE ? Color.BLACK : Color.WHITE;
+        int[] squares = new int[index.getPieceCount()];
+        squares[0] = chessMatch.getKingSquare(strong);
+        squares[1] = chessMatch.getKingSquare(weak);
+        long used = 0L;
+        PieceType[] pieces = index.getPieces();
+        for (int i = 0; i < pieces.length; i++) {
+            long candidates = board.pieces(strong, pieces[i]) & ~used;
+            squares[i + 2] = Long.numberOfTrailingZeros(candidates);
+            used |= candidates & -candidates;
+        }
+        //tables are built with white as the stronger side, so a black one is mirrored
+        if (strong == Color.BLACK) {
+            for (int i = 0; i < squares.length; i++) {
+                squares[i] ^= 56;
+            }
+        }
+        boolean strongToMove = chessMatch.getCurrentPlayer() == strong;
+        long value = read(strongToMove ? 0 : 1, index.index(squares));
+        if (value == 0) {
+            return new TablebaseResult(TablebaseResult.DRAW, 0);
+        }
+        return new TablebaseResult(strongToMove ? TablebaseResult.WIN : TablebaseResult.LOSS, (int) value - 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean matches(ChessBoard board, Color strong) {
+        Color weak = strong == Color.WHITE ? Color.BLACK : Color.WHITE;
+        if (Long.bitCount(board.pieces(weak)) != 1 || Long.bitCount(board.pieces(strong)) != index.getPieceCount() - 1) {
+            return false;
+        }
+        for (PieceType type : index.getPieces()) {
+            int expected = 0;
+            for (PieceType other : index.getPieces()) {
+                expected += other == type ? 1 : 0;
+            }
+            if (Long.bitCount(board.pieces(strong, type)) != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long read(int side, int entry) {
+        long bit = (long) entry * bits;
+        long offset = HEADER_BYTES + side * sideBytes + (bit >>> 6) * Long.BYTES;
+        int shift = (int) (bit & 63);
+        long value = data.getLong((int) offset) >>> shift;
+        if (shift + bits > 64) {
+            value |= data.getLong((int) offset + Long.BYTES) << (64 - shift);
+        }
+        return value & mask;
+    }
+
+    static int bitsFor(int maxValue) {
+        return Math.max(1, 64 - Long.numberOfLeadingZeros(maxValue));
+    }
+
+    static long words(int entries, int bits) {
+        return ((long) entries * bits + 63) >>> 6;
+    }
+}
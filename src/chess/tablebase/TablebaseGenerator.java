@@ -0,0 +1,372 @@
+package chess.tablebase;
+
+import chess.Attacks;
+import chess.Color;
+import chess.PieceType;
+import chess.exceptions.ChessException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+//retrograde analysis: mates first, then one ply further back per pass until nothing changes.
+//Moves come from Attacks.attacks, the rule table behind the pieces' own moves; building ChessPiece objects
+//for millions of positions per pass would cost far more. The weaker side only has its king, so a capture
+//leaves the signature without that piece: its table is generated first and looked up for the capture.
+public class TablebaseGenerator {
+    private static final byte UNKNOWN = 0;
+    private static final byte ILLEGAL = 1;
+    private static final byte DRAW = 2;
+    //a decided win or loss is stored as MATE + plies to mate
+    private static final int MATE = 3;
+    private static final int SPLIT_THRESHOLD = 1 << 12;
+
+    private final TablebaseIndex index;
+    private final ForkJoinPool pool;
+    //white to move and black to move
+    private final byte[] whiteToMove;
+    private final byte[] blackToMove;
+    //by piece position in the squares array, the table left after black takes that piece; null where there is none
+    private final TablebaseGenerator[] captureTables;
+    private int longestMate;
+
+    public TablebaseGenerator(String signature, ForkJoinPool pool) {
+        this.index = new TablebaseIndex(signature);
+        this.pool = pool;
+        this.whiteToMove = new byte[index.size()];
+        this.blackToMove = new byte[index.size()];
+        this.captureTables = new TablebaseGenerator[index.getPieceCount()];
+    }
+
+    public String getSignature() {
+        return index.getSignature();
+    }
+
+    public int getPositions() {
+        return index.size();
+    }
+
+    //plies of the longest forced mate
+    public int getLongestMate() {
+        return longestMate;
+    }
+
+    public long countWins() {
+        long wins = 0;
+        for (byte value : whiteToMove) {
+            wins += (value & 0xFF) >= MATE ? 1 : 0;
+        }
+        return wins;
+    }
+
+    public void generate() {
+        //a capture into a longer mate decides its position only once the passes have gone that deep
+        int captureMate = generateCaptureTables();
+        run((squares, i) -> {
+            whiteToMove[i] = isLegal(squares, true) ? UNKNOWN : ILLEGAL;
+            blackToMove[i] = isLegal(squares, false) ? initialBlackValue(squares) : ILLEGAL;
+            return false;
+        });
+        for (int ply = 1; ; ply++) {
+            int plies = ply;
+            long changed = (ply & 1) == 1
+                    ? run((squares, i) -> {
+                        if (whiteToMove[i] == UNKNOWN && whiteCanMate(squares)) {
+                            whiteToMove[i] = mate(plies);
+                            return true;
+                        }
+                        return false;
+                    })
+                    : run((squares, i) -> {
+                        if (blackToMove[i] == UNKNOWN && blackIsLost(squares, plies)) {
+                            blackToMove[i] = mate(plies);
+                            return true;
+                        }
+                        return false;
+                    });
+            if (changed == 0 && ply > captureMate + 1 && (ply & 1) == 0) {
+                //a black pass found nothing new, so the next white pass can't either
+                break;
+            }
+            if (changed > 0) {
+                longestMate = ply;
+            }
+        }
+        for (int i = 0; i < whiteToMove.length; i++) {
+            if (whiteToMove[i] == UNKNOWN) {
+                whiteToMove[i] = DRAW;
+            }
+            if (blackToMove[i] == UNKNOWN) {
+                blackToMove[i] = DRAW;
+            }
+        }
+    }
+
+    //one table per distinct piece black can take, sharing the tables of identical pieces; returns their longest mate
+    private int generateCaptureTables() {
+        String signature = index.getSignature();
+        int longest = 0;
+        if (index.getPieces().length < 2) {
+            //taking the only piece leaves bare kings
+            return longest;
+        }
+        for (int i = 2; i < captureTables.length; i++) {
+            for (int j = 2; j < i && captureTables[i] == null; j++) {
+                if (index.getPieces()[j - 2] == index.getPieces()[i - 2]) {
+                    captureTables[i] = captureTables[j];
+                }
+            }
+            if (captureTables[i] == null) {
+                captureTables[i] = new TablebaseGenerator(signature.substring(0, i - 1) + signature.substring(i), pool);
+                captureTables[i].generate();
+                longest = Math.max(longest, captureTables[i].longestMate);
+            }
+        }
+        return longest;
+    }
+
+    //header, then the white to move entries and the black to move entries packed at bits per entry
+    public void write(Path path) throws IOException {
+        int bits = Tablebase.bitsFor(longestMate + 1);
+        long words = Tablebase.words(index.size(), bits);
+        ByteBuffer buffer = ByteBuffer.allocate(Tablebase.HEADER_BYTES);
+        buffer.putInt(Tablebase.MAGIC);
+        buffer.putShort(Tablebase.VERSION);
+        buffer.putShort((short) bits);
+        buffer.putInt(index.size());
+        byte[] name = new byte[Tablebase.SIGNATURE_BYTES];
+        for (int i = 0; i < index.getSignature().length(); i++) {
+            name[i] = (byte) index.getSignature().charAt(i);
+        }
+        buffer.put(name);
+        buffer.position(Tablebase.HEADER_BYTES);
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel, buffer);
+            for (byte[] values : new byte[][]{whiteToMove, blackToMove}) {
+                ByteBuffer packed = ByteBuffer.allocate((int) (words * Long.BYTES));
+                long[] longs = new long[(int) words];
+                for (int i = 0; i < values.length; i++) {
+                    int value = values[i] & 0xFF;
+                    long entry = value >= MATE ? value - MATE + 1 : 0;
+                    long bit = (long) i * bits;
+                    int word = (int) (bit >>> 6);
+                    int shift = (int) (bit & 63);
+                    longs[word] |= entry << shift;
+                    if (shift + bits > 64) {
+                        longs[word + 1] |= entry >>> (64 - shift);
+                    }
+                }
+                packed.asLongBuffer().put(longs);
+                write(channel, packed);
+            }
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static byte mate(int plies) {
+        if (MATE + plies > 0xFF) {
+            throw new ChessException("Mate distance too long to store: " + plies);
+        }
+        return (byte) (MATE + plies);
+    }
+
+    private boolean isLegal(int[] squares, boolean whiteMoves) {
+        long occupied = 0L;
+        for (int i = 0; i < squares.length; i++) {
+            if ((occupied & (1L << squares[i])) != 0) {
+                return false;
+            }
+            occupied |= 1L << squares[i];
+        }
+        if ((Attacks.kingAttacks(squares[0]) & (1L << squares[1])) != 0) {
+            return false;
+        }
+        //with white to move, black can't have been left in check
+        return !whiteMoves || (whiteAttacks(squares, occupied, -1) & (1L << squares[1])) == 0;
+    }
+
+    //mates and stalemates are final at once, and so is any position where black can take a piece into a draw
+    private byte initialBlackValue(int[] squares) {
+        long occupied = occupied(squares);
+        long targets = blackKingTargets(squares, occupied);
+        if (targets == 0) {
+            return (whiteAttacks(squares, occupied, -1) & (1L << squares[1])) != 0 ? mate(0) : DRAW;
+        }
+        for (long captures = targets & occupied; captures != 0; captures &= captures - 1) {
+            if (captureValue(squares, Long.numberOfTrailingZeros(captures)) < MATE) {
+                return DRAW;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    //the white to move value after the black king takes the piece on target
+    private int captureValue(int[] squares, int target) {
+        int captured = 2;
+        while (squares[captured] != target) {
+            captured++;
+        }
+        TablebaseGenerator table = captureTables[captured];
+        if (table == null) {
+            return DRAW;
+        }
+        int[] child = new int[squares.length - 1];
+        child[0] = squares[0];
+        child[1] = target;
+        for (int i = 2, j = 2; i < squares.length; i++) {
+            if (i != captured) {
+                child[j++] = squares[i];
+            }
+        }
+        return table.whiteToMove[table.index.index(child)] & 0xFF;
+    }
+
+    private boolean whiteCanMate(int[] squares) {
+        long occupied = occupied(squares);
+        int[] child = squares.clone();
+        long kingTargets = Attacks.kingAttacks(squares[0]) & ~occupied & ~Attacks.kingAttacks(squares[1]);
+        for (; kingTargets != 0; kingTargets &= kingTargets - 1) {
+            child[0] = Long.numberOfTrailingZeros(kingTargets);
+            if (isBlackLoss(child)) {
+                return true;
+            }
+        }
+        child[0] = squares[0];
+        for (int i = 2; i < squares.length; i++) {
+            long targets = whiteMoves(index.getPieces()[i - 2], squares[i], occupied);
+            for (; targets != 0; targets &= targets - 1) {
+                child[i] = Long.numberOfTrailingZeros(targets);
+                if (isBlackLoss(child)) {
+                    return true;
+                }
+            }
+            child[i] = squares[i];
+        }
+        return false;
+    }
+
+    private boolean isBlackLoss(int[] squares) {
+        return (blackToMove[index.index(squares)] & 0xFF) >= MATE;
+    }
+
+    //every black move runs into a white win found within the previous plies
+    private boolean blackIsLost(int[] squares, int plies) {
+        long occupied = occupied(squares);
+        int[] child = squares.clone();
+        for (long targets = blackKingTargets(squares, occupied); targets != 0; targets &= targets - 1) {
+            int target = Long.numberOfTrailingZeros(targets);
+            if ((occupied & (1L << target)) != 0) {
+                //the capture tables hold every distance from the start, so a longer mate has to wait its turn
+                if (captureValue(squares, target) - MATE > plies - 1) {
+                    return false;
+                }
+                continue;
+            }
+            child[1] = target;
+            if ((whiteToMove[index.index(child)] & 0xFF) < MATE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long blackKingTargets(int[] squares, long occupied) {
+        //the king can't hide behind itself from a slider
+        long withoutKing = occupied & ~(1L << squares[1]);
+        long targets = Attacks.kingAttacks(squares[1]) & ~Attacks.kingAttacks(squares[0]);
+        long safe = 0L;
+        for (; targets != 0; targets &= targets - 1) {
+            int target = Long.numberOfTrailingZeros(targets);
+            int captured = -1;
+            for (int i = 2; i < squares.length; i++) {
+                if (squares[i] == target) {
+                    captured = i;
+                }
+            }
+            if ((whiteAttacks(squares, withoutKing, captured) & (1L << target)) == 0) {
+                safe |= 1L << target;
+            }
+        }
+        return safe;
+    }
+
+    //squares attacked by the white pieces other than the one at skip; the white king is left to the caller
+    private long whiteAttacks(int[] squares, long occupied, int skip) {
+        long attacks = 0L;
+        for (int i = 2; i < squares.length; i++) {
+            if (i != skip) {
+                attacks |= Attacks.attacks(index.getPieces()[i - 2], Color.WHITE, squares[i], occupied);
+            }
+        }
+        return attacks;
+    }
+
+    //only the black king is there to capture, and taking it is never a move, so pieces just go to empty squares
+    private static long whiteMoves(PieceType type, int square, long occupied) {
+        return Attacks.attacks(type, Color.WHITE, square, occupied) & ~occupied;
+    }
+
+    private static long occupied(int[] squares) {
+        long occupied = 0L;
+        for (int square : squares) {
+            occupied |= 1L << square;
+        }
+        return occupied;
+    }
+
+    private long run(Step step) {
+        LongAdder changed = new LongAdder();
+        pool.invoke(new Pass(step, changed, 0, index.size()));
+        return changed.sum();
+    }
+
+    private interface Step {
+        //returns whether the position was decided
+        boolean apply(int[] squares, int index);
+    }
+
+    private class Pass extends RecursiveAction {
+        private final Step step;
+        private final LongAdder changed;
+        private final int from;
+        private final int to;
+
+        Pass(Step step, LongAdder changed, int from, int to) {
+            this.step = step;
+            this.changed = changed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                int[] squares = new int[index.getPieceCount()];
+                long count = 0;
+                for (int i = from; i < to; i++) {
+                    index.decode(i, squares);
+                    if (step.apply(squares, i)) {
+                        count++;
+                    }
+                }
+                changed.add(count);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Pass(step, changed, from, middle), new Pass(step, changed, middle, to));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package chess.tablebase;
+
+import chess.ChessBoard;
+import chess.PieceType;
+import chess.exceptions.ChessException;
+
+import java.util.Arrays;
+
+//numbers the positions of a material signature: the stronger side is white and the other side has a bare king.
+//Board symmetry puts the white king on one of 10 squares. Pawns are refused: without promotion in the rules
+//every pawn ending would come out as a draw.
+final class TablebaseIndex {
+    static final int MIRROR_FILES = 1;
+    static final int MIRROR_RANKS = 2;
+    static final int TRANSPOSE = 4;
+
+    private static final String PIECE_LETTERS = "NBRQ";
+    private static final PieceType[] PIECE_TYPES = {
+            PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN
+    };
+
+    private final String signature;
+    private final PieceType[] pieces;
+    private final int[] kingIndex = new int[ChessBoard.SQUARES];
+    private final int[] kingSquare;
+    private final int size;
+
+    TablebaseIndex(String signature) {
+        if (signature.length() < 3 || signature.length() > 5 || signature.charAt(0) != 'K'
+                || !signature.endsWith("K")) {
+            throw new ChessException("Tablebase signatures look like KQK or KBNK: " + signature);
+        }
+        this.signature = signature;
+        this.pieces = new PieceType[signature.length() - 2];
+        for (int i = 0; i < pieces.length; i++) {
+            if (signature.charAt(i + 1) == 'P') {
+                throw new ChessException("Pawn tablebases need promotion, which the rules don't support yet: " + signature);
+            }
+            int letter = PIECE_LETTERS.indexOf(signature.charAt(i + 1));
+            if (letter < 0) {
+                throw new ChessException("Unknown piece in tablebase signature: " + signature);
+            }
+            pieces[i] = PIECE_TYPES[letter];
+        }
+
+        Arrays.fill(kingIndex, -1);
+        int count = 0;
+        int[] squares = new int[ChessBoard.SQUARES];
+        for (int square = 0; square < ChessBoard.SQUARES; square++) {
+            if (transform(square) == 0) {
+                kingIndex[square] = count;
+                squares[count++] = square;
+            }
+        }
+        this.kingSquare = Arrays.copyOf(squares, count);
+        long positions = (long) count << (6 * (pieces.length + 1));
+        if (positions > Integer.MAX_VALUE) {
+            throw new ChessException("Tablebase too large: " + signature);
+        }
+        this.size = (int) positions;
+    }
+
+    String getSignature() {
+        return signature;
+    }
+
+    PieceType[] getPieces() {
+        return pieces;
+    }
+
+    //squares per position: white king, black king, then the white pieces in signature order
+    int getPieceCount() {
+        return pieces.length + 2;
+    }
+
+    int size() {
+        return size;
+    }
+
+    //the symmetry that brings the white king to a canonical square
+    int transform(int whiteKing) {
+        int row = ChessBoard.row(whiteKing);
+        int column = ChessBoard.column(whiteKing);
+        int transform = 0;
+        if (column > 3) {
+            transform |= MIRROR_FILES;
+            column = 7 - column;
+        }
+        if (row > 3) {
+            transform |= MIRROR_RANKS;
+            row = 7 - row;
+        }
+        if (column > row) {
+            transform |= TRANSPOSE;
+        }
+        return transform;
+    }
+
+    static int apply(int square, int transform) {
+        int row = ChessBoard.row(square);
+        int column = ChessBoard.column(square);
+        if ((transform & MIRROR_FILES) != 0) {
+            column = 7 - column;
+        }
+        if ((transform & MIRROR_RANKS) != 0) {
+            row = 7 - row;
+        }
+        return (transform & TRANSPOSE) != 0 ? ChessBoard.square(column, row) : ChessBoard.square(row, column);
+    }
+
+    //any position, canonicalized first
+    int index(int[] squares) {
+        int transform = transform(squares[0]);
+        int index = kingIndex[apply(squares[0], transform)];
+        for (int i = 1; i < squares.length; i++) {
+            index = index << 6 | apply(squares[i], transform);
+        }
+        return index;
+    }
+
+    void decode(int index, int[] squares) {
+        for (int i = squares.length - 1; i > 0; i--) {
+            squares[i] = index & 63;
+            index >>>= 6;
+        }
+        squares[0] = kingSquare[index];
+    }
+}
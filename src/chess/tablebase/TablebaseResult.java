@@ -0,0 +1,38 @@
+package chess.tablebase;
+
+public class TablebaseResult {
+    public static final int LOSS = -1;
+    public static final int DRAW = 0;
+    public static final int WIN = 1;
+
+    private final int outcome;
+    private final int pliesToMate;
+
+    public TablebaseResult(int outcome, int pliesToMate) {
+        this.outcome = outcome;
+        this.pliesToMate = pliesToMate;
+    }
+
+    //from the side to move's point of view
+    public int getOutcome() {
+        return outcome;
+    }
+
+    //zero for draws
+    public int getPliesToMate() {
+        return pliesToMate;
+    }
+
+    public int getMovesToMate() {
+        return (pliesToMate + 1) / 2;
+    }
+
+    @Override
+    public String toString() {
+        return switch (outcome) {
+            case WIN -> "win, mate in " + getMovesToMate();
+            case LOSS -> "loss, mated in " + getMovesToMate();
+            default -> "draw";
+        };
+    }
+}
@@ -0,0 +1,373 @@
+package chess.uci;
+
+import chess.ChessBoard;
+import chess.ChessMatch;
+import chess.Color;
+import chess.Move;
+import chess.MoveList;
+import chess.TranspositionTable;
+import chess.engine.Search;
+import chess.engine.SearchInfo;
+import chess.exceptions.ChessException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+//speaks UCI on the given streams; the search runs on its own thread so stop and isready are answered at once
+public class UciEngine {
+    private static final String NAME = "java-chess";
+    private static final int DEFAULT_HASH_MB = 64;
+    private static final int MAX_HASH_MB = 4096;
+    private static final int MAX_THREADS = 256;
+    //kept back from the clock for the GUI and the transport
+    private static final long MOVE_OVERHEAD_MILLIS = 30;
+
+    private final BufferedReader in;
+    private final Writer out;
+    private final MoveList moves = new MoveList();
+    private final Object lock = new Object();
+
+    private int hashMb = DEFAULT_HASH_MB;
+    private int threads = 1;
+    private Search search;
+
+    //the last position command, so a longer move list only plays the moves that are new
+    private String positionBase;
+    private final List<String> positionMoves = new ArrayList<>();
+    private ChessMatch chessMatch = new ChessMatch();
+
+    private Thread searchThread;
+    //guarded by lock: while set, bestmove waits for ponderhit or stop
+    private boolean holdBestMove;
+    private long ponderTimeLimit;
+
+    public UciEngine(BufferedReader in, Writer out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    public void run() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] tokens = line.trim().split("\\s+");
+            switch (tokens[0]) {
+                case "uci" -> {
+                    send("id name " + NAME);
+                    send("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+                    send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                    send("option name Ponder type check default false");
+                    send("uciok");
+                }
+                case "isready" -> send("readyok");
+                case "setoption" -> setOption(tokens);
+                case "ucinewgame" -> {
+                    stopSearch();
+                    search().getTable().clear();
+                    positionBase = null;
+                }
+                case "position" -> {
+                    stopSearch();
+                    position(tokens);
+                }
+                case "go" -> {
+                    stopSearch();
+                    go(tokens);
+                }
+                case "ponderhit" -> ponderHit();
+                case "stop" -> release(true);
+                case "quit" -> {
+                    stopSearch();
+                    return;
+                }
+                default -> {
+                    //unknown commands are ignored, as the protocol asks
+                }
+            }
+        }
+        stopSearch();
+    }
+
+    private void setOption(String[] tokens) {
+        String name = value(tokens, "name", "value");
+        String value = value(tokens, "value", null);
+        if (name == null || value == null) {
+            return;
+        }
+        stopSearch();
+        try {
+            switch (name.toLowerCase()) {
+                case "hash" -> {
+                    hashMb = Math.max(1, Math.min(MAX_HASH_MB, Integer.parseInt(value)));
+                    search = null;
+                }
+                case "threads" -> {
+                    threads = Math.max(1, Math.min(MAX_THREADS, Integer.parseInt(value)));
+                    search = null;
+                }
+                default -> {
+                }
+            }
+        } catch (NumberFormatException e) {
+            info("invalid value " + value + " for " + name);
+        }
+    }
+
+    private void position(String[] tokens) {
+        int index = 1;
+        String base;
+        if (tokens.length > 1 && tokens[1].equals("startpos")) {
+            base = ChessMatch.START_FEN;
+            index = 2;
+        } else if (tokens.length > 1 && tokens[1].equals("fen")) {
+            StringBuilder fen = new StringBuilder();
+            for (index = 2; index < tokens.length && !tokens[index].equals("moves"); index++) {
+                fen.append(fen.length() > 0 ? " " : "").append(tokens[index]);
+            }
+            base = fen.toString();
+        } else {
+            return;
+        }
+        int first = index < tokens.length && tokens[index].equals("moves") ? index + 1 : tokens.length;
+        int count = tokens.length - first;
+
+        //a GUI resends the whole game every move; keep the match when the moves only grew
+        boolean continues = base.equals(positionBase) && count >= positionMoves.size();
+        for (int i = 0; continues && i < positionMoves.size(); i++) {
+            continues = positionMoves.get(i).equals(tokens[first + i]);
+        }
+        //a bad move leaves the last valid position in place rather than a half-played one
+        ChessMatch target = chessMatch;
+        int known = positionMoves.size();
+        if (!continues) {
+            try {
+                target = new ChessMatch(base);
+            } catch (ChessException e) {
+                info("invalid fen " + base + ": " + e.getMessage() + ", keeping the last valid position");
+                return;
+            }
+            known = 0;
+        }
+        for (int i = first + known; i < tokens.length; i++) {
+            String error = play(target, tokens[i]);
+            if (error != null) {
+                info(error + ", keeping the last valid position");
+                if (target == chessMatch) {
+                    for (int j = first + known; j < i; j++) {
+                        target.undo();
+                    }
+                }
+                return;
+            }
+        }
+        if (target != chessMatch) {
+            chessMatch = target;
+            positionBase = base;
+            positionMoves.clear();
+        }
+        for (int i = first + known; i < tokens.length; i++) {
+            positionMoves.add(tokens[i]);
+        }
+    }
+
+    //long algebraic notation, e.g. e2e4; returns why the move can't be played, or null once it is
+    private String play(ChessMatch target, String move) {
+        if (move.length() == 5) {
+            return "promotions are not supported yet: " + move;
+        }
+        if (move.length() != 4) {
+            return "invalid move " + move;
+        }
+        int from = square(move.charAt(0), move.charAt(1));
+        int to = square(move.charAt(2), move.charAt(3));
+        if (from < 0 || to < 0) {
+            return "invalid move " + move;
+        }
+        target.legalMoves(moves);
+        int legal = moves.find(from, to);
+        if (legal == Move.NONE) {
+            return "illegal move " + move;
+        }
+        try {
+            target.playMove(legal);
+        } catch (ChessException e) {
+            return e.getMessage() + ": " + move;
+        }
+        return null;
+    }
+
+    private static int square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return -1;
+        }
+        return ChessBoard.square(ChessBoard.SIZE - (rank - '0'), file - 'a');
+    }
+
+    private void go(String[] tokens) {
+        int depth = Search.MAX_DEPTH;
+        long moveTime = 0;
+        long[] time = new long[2];
+        long[] increment = new long[2];
+        int movesToGo = 0;
+        boolean ponder = false;
+        boolean infinite = false;
+        try {
+            for (int i = 1; i < tokens.length; i++) {
+                switch (tokens[i]) {
+                    case "depth" -> depth = Integer.parseInt(tokens[++i]);
+                    case "movetime" -> moveTime = Long.parseLong(tokens[++i]);
+                    case "wtime" -> time[Color.WHITE.ordinal()] = Long.parseLong(tokens[++i]);
+                    case "btime" -> time[Color.BLACK.ordinal()] = Long.parseLong(tokens[++i]);
+                    case "winc" -> increment[Color.WHITE.ordinal()] = Long.parseLong(tokens[++i]);
+                    case "binc" -> increment[Color.BLACK.ordinal()] = Long.parseLong(tokens[++i]);
+                    case "movestogo" -> movesToGo = Integer.parseInt(tokens[++i]);
+                    case "ponder" -> ponder = true;
+                    case "infinite" -> infinite = true;
+                    default -> {
+                    }
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            info("invalid go command");
+            return;
+        }
+
+        int side = chessMatch.getCurrentPlayer().ordinal();
+        long timeLimit = moveTime > 0 ? Math.max(1, moveTime - MOVE_OVERHEAD_MILLIS)
+                : allocate(time[side], increment[side], movesToGo);
+        if (infinite) {
+            timeLimit = 0;
+        }
+        synchronized (lock) {
+            holdBestMove = ponder || infinite;
+            ponderTimeLimit = ponder ? timeLimit : 0;
+        }
+        ChessMatch position = chessMatch;
+        int maxDepth = depth;
+        long limit = ponder ? 0 : timeLimit;
+        Search current = search();
+        current.prepare();
+        searchThread = new Thread(() -> think(current, position, maxDepth, limit), "uci-search");
+        searchThread.start();
+    }
+
+    //an even share of the remaining clock plus most of the increment, never the whole clock
+    private static long allocate(long time, long increment, int movesToGo) {
+        if (time <= 0) {
+            return 0;
+        }
+        long share = time / (movesToGo > 0 ? movesToGo + 1 : 30) + increment * 3 / 4;
+        return Math.max(1, Math.min(share, time - MOVE_OVERHEAD_MILLIS));
+    }
+
+    private void think(Search search, ChessMatch position, int depth, long timeLimit) {
+        //a mated or stalemated root has nothing to search and answers bestmove 0000
+        SearchInfo result = position.legalMoves().isEmpty() ? null
+                : search.search(position, depth, timeLimit, info -> send("info " + info));
+        //a ponder or infinite search may not answer before the GUI says so
+        synchronized (lock) {
+            while (holdBestMove) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        int[] pv = result != null ? result.getPrincipalVariation() : new int[0];
+        int best = pv.length > 0 ? pv[0] : Move.NONE;
+        if (best == Move.NONE) {
+            MoveList legal = position.legalMoves();
+            best = legal.size() > 0 ? legal.get(0) : Move.NONE;
+        }
+        if (best == Move.NONE) {
+            send("bestmove 0000");
+        } else if (pv.length > 1) {
+            send("bestmove " + Move.toString(best) + " ponder " + Move.toString(pv[1]));
+        } else {
+            send("bestmove " + Move.toString(best));
+        }
+    }
+
+    private void ponderHit() {
+        synchronized (lock) {
+            if (!holdBestMove || searchThread == null) {
+                return;
+            }
+            //the opponent played the expected move, so the search is now on our own clock
+            if (ponderTimeLimit > 0) {
+                search.setTimeLimit(ponderTimeLimit);
+            }
+            holdBestMove = false;
+            lock.notifyAll();
+        }
+    }
+
+    private void release(boolean stop) {
+        if (stop && search != null) {
+            search.stop();
+        }
+        synchronized (lock) {
+            holdBestMove = false;
+            lock.notifyAll();
+        }
+    }
+
+    private void stopSearch() {
+        if (searchThread == null) {
+            return;
+        }
+        release(true);
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+
+    private Search search() {
+        if (search == null) {
+            search = new Search(new TranspositionTable(hashMb), threads);
+        }
+        return search;
+    }
+
+    //the words between key and the next stop word, or the rest of the line without one
+    private static String value(String[] tokens, String key, String stop) {
+        StringBuilder sb = null;
+        for (String token : tokens) {
+            if (sb == null) {
+                if (token.equals(key)) {
+                    sb = new StringBuilder();
+                }
+            } else if (token.equals(stop)) {
+                break;
+            } else {
+                sb.append(sb.length() > 0 ? " " : "").append(token);
+            }
+        }
+        return sb == null ? null : sb.toString();
+    }
+
+    private void info(String message) {
+        send("info string " + message);
+    }
+
+    //the input and search threads both write, every line goes out whole and at once
+    private void send(String line) {
+        synchronized (out) {
+            try {
+                out.write(line);
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
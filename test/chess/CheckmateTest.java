@@ -0,0 +1,44 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CheckmateTest {
+    static ChessMatch foolsMate() {
+        ChessMatch chessMatch = new ChessMatch();
+        for (String move : new String[] {"f2f3", "e7e5", "g2g4", "d8h4"}) {
+            chessMatch.performChessMove(new ChessPosition(move.charAt(0), move.charAt(1) - '0'),
+                    new ChessPosition(move.charAt(2), move.charAt(3) - '0'));
+        }
+        return chessMatch;
+    }
+
+    @Test
+    void theMatedSideIsToMoveAndHasNoMoves() {
+        ChessMatch chessMatch = foolsMate();
+        assertEquals(GameResult.CHECKMATE, chessMatch.getResult());
+        assertEquals(Color.WHITE, chessMatch.getCurrentPlayer());
+        assertTrue(chessMatch.getCheck());
+
+        MoveList moves = new MoveList();
+        chessMatch.legalMoves(moves);
+        assertTrue(moves.isEmpty());
+        chessMatch.legalCaptures(moves);
+        assertTrue(moves.isEmpty());
+        chessMatch.legalQuietMoves(moves);
+        assertTrue(moves.isEmpty());
+    }
+
+    @Test
+    void undoingTheMateGivesTheTurnBack() {
+        ChessMatch chessMatch = foolsMate();
+        chessMatch.undo();
+        assertEquals(GameResult.IN_PROGRESS, chessMatch.getResult());
+        assertEquals(Color.BLACK, chessMatch.getCurrentPlayer());
+        chessMatch.redo();
+        assertEquals(GameResult.CHECKMATE, chessMatch.getResult());
+        assertEquals(Color.WHITE, chessMatch.getCurrentPlayer());
+    }
+}
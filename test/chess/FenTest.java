@@ -0,0 +1,44 @@
+package chess;
+
+import chess.exceptions.ChessException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FenTest {
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @Test
+    void startPositionRoundTrips() {
+        assertEquals(START, new ChessMatch().toFen());
+        assertEquals(START, new ChessMatch(START).toFen());
+        assertEquals(new ChessMatch().getZobristKey(), new ChessMatch(START).getZobristKey());
+    }
+
+    @Test
+    void enPassantAndCastlingRoundTrip() {
+        String fen = "r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 12";
+        assertEquals(fen, new ChessMatch(fen).toFen());
+    }
+
+    //the mated side is to move, the only way the position is legal
+    @Test
+    void matedPositionRoundTrips() {
+        ChessMatch mated = CheckmateTest.foolsMate();
+        String fen = mated.toFen();
+        assertEquals("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3", fen);
+
+        ChessMatch loaded = new ChessMatch(fen);
+        assertEquals(GameResult.CHECKMATE, loaded.getResult());
+        assertEquals(Color.WHITE, loaded.getCurrentPlayer());
+        assertEquals(mated.getZobristKey(), loaded.getZobristKey());
+        assertEquals(fen, loaded.toFen());
+    }
+
+    @Test
+    void sideNotToMoveInCheckIsRejected() {
+        assertThrows(ChessException.class,
+                () -> new ChessMatch("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR b KQkq - 1 2"));
+    }
+}
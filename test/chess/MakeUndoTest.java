@@ -0,0 +1,153 @@
+package chess;
+
+import chess.exceptions.ChessException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//the incrementally updated keys and scores have to come back exactly when moves are taken back
+class MakeUndoTest {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final int PLIES = 200;
+
+    @Test
+    void undoingEveryMoveRestoresTheStart() {
+        for (long seed = 0; seed < 50; seed++) {
+            playAndUndo(new ChessMatch(), new Random(seed));
+            playAndUndo(new ChessMatch(KIWIPETE), new Random(seed));
+        }
+    }
+
+    @Test
+    void keysMatchAPositionBuiltFromScratch() {
+        for (long seed = 0; seed < 20; seed++) {
+            ChessMatch chessMatch = new ChessMatch(KIWIPETE);
+            Random random = new Random(seed);
+            for (int ply = 0; ply < PLIES && playRandomMove(chessMatch, random) != Move.NONE; ply++) {
+                ChessMatch fresh = new ChessMatch(chessMatch.toFen());
+                assertEquals(fresh.getZobristKey(), chessMatch.getZobristKey(), chessMatch.toFen());
+                assertEquals(fresh.getBoard().pawnKey(), chessMatch.getBoard().pawnKey(), chessMatch.toFen());
+                assertEquals(fresh.getBoard().middlegameScore(), chessMatch.getBoard().middlegameScore());
+                assertEquals(fresh.getBoard().endgameScore(), chessMatch.getBoard().endgameScore());
+            }
+        }
+    }
+
+    @Test
+    void transpositionsShareAKey() {
+        ChessMatch chessMatch = new ChessMatch();
+        long start = chessMatch.getZobristKey();
+        for (String move : new String[] {"g1f3", "g8f6", "f3g1", "f6g8"}) {
+            MoveList moves = chessMatch.legalMoves();
+            chessMatch.makeMove(moves.find(square(move, 0), square(move, 2)));
+        }
+        assertEquals(start, chessMatch.getZobristKey());
+    }
+
+    @Test
+    void undoMoveRejectsAMoveThatWasNotPlayedLast() {
+        ChessMatch chessMatch = new ChessMatch();
+        MoveList moves = chessMatch.legalMoves();
+        int played = moves.get(0);
+        assertTrue(chessMatch.makeMove(played));
+        assertThrows(ChessException.class, () -> chessMatch.undoMove(moves.get(1)));
+        assertThrows(ChessException.class, chessMatch::undoNullMove);
+        chessMatch.undoMove(played);
+        assertThrows(ChessException.class, () -> chessMatch.undoMove(played));
+    }
+
+    @Test
+    void aSearchOnTheMatchKeepsTheRedoStack() {
+        ChessMatch chessMatch = new ChessMatch();
+        String start = chessMatch.toFen();
+        playGame(chessMatch, "e2e4", "e7e5", "g1f3");
+        String end = chessMatch.toFen();
+        chessMatch.undo();
+        chessMatch.undo();
+        chessMatch.undo();
+        Perft.perft(chessMatch, 3);
+        assertEquals(start, chessMatch.toFen());
+        chessMatch.redo();
+        chessMatch.redo();
+        chessMatch.redo();
+        assertEquals(end, chessMatch.toFen());
+        assertFalse(chessMatch.canRedo());
+    }
+
+    @Test
+    void aCopyCanUndoPastTheCopy() {
+        ChessMatch chessMatch = new ChessMatch(KIWIPETE);
+        String start = chessMatch.toFen();
+        long key = chessMatch.getZobristKey();
+        Random random = new Random(1);
+        for (int ply = 0; ply < 40; ply++) {
+            if (playRandomMove(chessMatch, random) == Move.NONE) {
+                break;
+            }
+        }
+        ChessMatch copy = new ChessMatch(chessMatch);
+        while (copy.canUndo()) {
+            copy.undo();
+        }
+        assertEquals(start, copy.toFen());
+        assertEquals(key, copy.getZobristKey());
+        while (copy.canRedo()) {
+            copy.redo();
+        }
+        assertEquals(chessMatch.toFen(), copy.toFen());
+    }
+
+    private static void playGame(ChessMatch chessMatch, String... moves) {
+        for (String move : moves) {
+            chessMatch.playMove(chessMatch.legalMoves().find(square(move, 0), square(move, 2)));
+        }
+    }
+
+    private static void playAndUndo(ChessMatch chessMatch, Random random) {
+        ChessBoard board = chessMatch.getBoard();
+        String fen = chessMatch.toFen();
+        long key = chessMatch.getZobristKey();
+        long pawnKey = board.pawnKey();
+        int middlegameScore = board.middlegameScore();
+        int endgameScore = board.endgameScore();
+
+        int[] played = new int[PLIES];
+        int count = 0;
+        while (count < PLIES) {
+            int move = playRandomMove(chessMatch, random);
+            if (move == Move.NONE) {
+                break;
+            }
+            played[count++] = move;
+        }
+        while (count > 0) {
+            chessMatch.undoMove(played[--count]);
+        }
+
+        assertEquals(fen, chessMatch.toFen());
+        assertEquals(key, chessMatch.getZobristKey());
+        assertEquals(pawnKey, board.pawnKey());
+        assertEquals(middlegameScore, board.middlegameScore());
+        assertEquals(endgameScore, board.endgameScore());
+    }
+
+    //plays a random legal move the way the search does and returns it, or Move.NONE if there is none
+    private static int playRandomMove(ChessMatch chessMatch, Random random) {
+        MoveList moves = chessMatch.legalMoves();
+        if (moves.isEmpty()) {
+            return Move.NONE;
+        }
+        int move = moves.get(random.nextInt(moves.size()));
+        assertTrue(chessMatch.makeMove(move));
+        return move;
+    }
+
+    private static int square(String move, int index) {
+        return ChessBoard.square('8' - move.charAt(index + 1), move.charAt(index) - 'a');
+    }
+}
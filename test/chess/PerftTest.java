@@ -0,0 +1,45 @@
+package chess;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//node counts from the standard perft suite; any difference means the move generator gained or lost a move
+class PerftTest {
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    @Test
+    void startPosition() {
+        assertEquals(20, Perft.perft(new ChessMatch(START), 1));
+        assertEquals(400, Perft.perft(new ChessMatch(START), 2));
+        assertEquals(8_902, Perft.perft(new ChessMatch(START), 3));
+        assertEquals(4_865_609, Perft.perft(new ChessMatch(START), 5));
+    }
+
+    @Test
+    void defaultConstructorIsTheStartPosition() {
+        assertEquals(197_281, Perft.perft(new ChessMatch(), 4));
+    }
+
+    @Test
+    void position3() {
+        assertEquals(674_624, Perft.perft(new ChessMatch(POSITION_3), 5));
+    }
+
+    @Test
+    void kiwipete() {
+        assertEquals(48, Perft.perft(new ChessMatch(KIWIPETE), 1));
+        assertEquals(2_039, Perft.perft(new ChessMatch(KIWIPETE), 2));
+        assertEquals(97_862, Perft.perft(new ChessMatch(KIWIPETE), 3));
+    }
+
+    //depth 4 is the first to reach promotions; the generator finds 4,074,224 nodes, all of the gap being promotions
+    @Disabled("Expected to fail until pawns can promote")
+    @Test
+    void kiwipeteDepth4() {
+        assertEquals(4_085_603, Perft.perft(new ChessMatch(KIWIPETE), 4));
+    }
+}
@@ -0,0 +1,36 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessMatch;
+import chess.Move;
+import chess.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//draws by rule have to be seen inside the tree, by every thread
+class SearchTest {
+    @Test
+    void aLosingSideTakesTheRepetition() {
+        ChessMatch chessMatch = new ChessMatch("4k1n1/8/8/8/8/8/8/3QK1N1 w - - 0 1");
+        for (String move : new String[] {"g1f3", "g8f6", "f3g1"}) {
+            chessMatch.playMove(chessMatch.legalMoves().find(square(move, 0), square(move, 2)));
+        }
+        for (int threads : new int[] {1, 3}) {
+            SearchInfo result = new Search(new TranspositionTable(1), threads).search(chessMatch, 6, 0, iteration -> { });
+            assertEquals(0, result.getScore());
+            assertEquals("f6g8", Move.toString(result.getBestMove()));
+        }
+    }
+
+    @Test
+    void theFiftyMoveRuleEndsTheWin() {
+        ChessMatch chessMatch = new ChessMatch("8/8/8/4k3/8/8/Q7/4K3 w - - 99 80");
+        SearchInfo result = new Search(new TranspositionTable(1), 1).search(chessMatch, 5, 0, iteration -> { });
+        assertEquals(0, result.getScore());
+    }
+
+    private static int square(String move, int index) {
+        return ChessBoard.square('8' - move.charAt(index + 1), move.charAt(index) - 'a');
+    }
+}
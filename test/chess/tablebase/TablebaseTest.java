@@ -0,0 +1,27 @@
+package chess.tablebase;
+
+import chess.ChessMatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//a capture by the bare king can leave a won ending, which the table has to take from the smaller one
+class TablebaseTest {
+    @Test
+    void takingOneRookStillLoses(@TempDir Path directory) throws IOException {
+        TablebaseGenerator generator = new TablebaseGenerator("KRRK", ForkJoinPool.commonPool());
+        generator.generate();
+        Path file = directory.resolve("KRRK.tb");
+        generator.write(file);
+        try (Tablebase tablebase = Tablebase.open(file)) {
+            TablebaseResult result = tablebase.probe(new ChessMatch("1k6/R7/8/8/8/8/8/K6R b - - 0 1"));
+            assertEquals(TablebaseResult.LOSS, result.getOutcome());
+            assertEquals(8, result.getMovesToMate());
+        }
+    }
+}